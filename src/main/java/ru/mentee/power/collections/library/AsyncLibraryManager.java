@@ -0,0 +1,148 @@
+package ru.mentee.power.collections.library;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Асинхронный фасад над {@link LibraryManager}.
+ *
+ * Каждый вызов выполняется в отдельном виртуальном потоке и возвращает {@link CompletableFuture}.
+ * Сам {@link LibraryManager} не потокобезопасен (даже чтение может обновлять кэши хранилища
+ * и рекомендаций), поэтому все обращения к нему выполняются под общей блокировкой: операции,
+ * в том числе изменения одной книги, никогда не выполняются одновременно. Порядок выполнения
+ * независимых вызовов не гарантируется; если операции должны идти друг за другом, их нужно
+ * связать через {@link CompletableFuture#thenCompose}.
+ *
+ * Используется {@link ReentrantLock}, а не {@code synchronized}: ожидание на ней не закрепляет
+ * виртуальный поток за потоком-носителем. После передачи менеджера фасаду напрямую его
+ * использовать нельзя.
+ */
+public class AsyncLibraryManager implements AutoCloseable {
+    private final LibraryManager library;
+    private final ExecutorService executor;
+    private final ReentrantLock libraryLock = new ReentrantLock();
+
+    public AsyncLibraryManager(LibraryManager library) {
+        this.library = library;
+        this.executor = Executors.newVirtualThreadPerTaskExecutor();
+    }
+
+    // ============ Изменения ============
+
+    public CompletableFuture<Boolean> addBook(Book book) {
+        return submit(() -> library.addBook(book));
+    }
+
+    public CompletableFuture<Boolean> removeBook(String isbn) {
+        return submit(() -> library.removeBook(isbn));
+    }
+
+    public CompletableFuture<Boolean> addReader(Reader reader) {
+        return submit(() -> library.addReader(reader));
+    }
+
+    public CompletableFuture<Boolean> borrowBook(String isbn, String readerId, int borrowDays) {
+        return submit(() -> library.borrowBook(isbn, readerId, borrowDays));
+    }
+
+    public CompletableFuture<Boolean> returnBook(String isbn, String readerId) {
+        return submit(() -> library.returnBook(isbn, readerId));
+    }
+
+    public CompletableFuture<Boolean> extendBorrowingPeriod(String isbn, String readerId, int additionalDays) {
+        return submit(() -> library.extendBorrowingPeriod(isbn, readerId, additionalDays));
+    }
+
+    public CompletableFuture<Boolean> placeHold(String isbn, String readerId) {
+        return submit(() -> library.placeHold(isbn, readerId));
+    }
+
+    public CompletableFuture<Boolean> cancelHold(String isbn, String readerId) {
+        return submit(() -> library.cancelHold(isbn, readerId));
+    }
+
+    public CompletableFuture<Integer> expireHolds(LocalDate today) {
+        return submit(() -> library.expireHolds(today));
+    }
+
+    // ============ Поиск ============
+
+    public CompletableFuture<Book> getBookByIsbn(String isbn) {
+        return submit(() -> library.getBookByIsbn(isbn));
+    }
+
+    public CompletableFuture<List<Book>> searchBooksByTitle(String titlePart) {
+        return submit(() -> library.searchBooksByTitle(titlePart));
+    }
+
+    public CompletableFuture<List<Book>> getBooksByAuthor(String author) {
+        return submit(() -> library.getBooksByAuthor(author));
+    }
+
+    public CompletableFuture<List<Book>> getBooksByGenre(Book.Genre genre) {
+        return submit(() -> library.getBooksByGenre(genre));
+    }
+
+    public CompletableFuture<List<Book>> getAvailableBooks() {
+        return submit(library::getAvailableBooks);
+    }
+
+    // ============ Отчеты ============
+
+    public CompletableFuture<List<Borrowing>> getOverdueBorrowings() {
+        return submit(library::getOverdueBorrowings);
+    }
+
+    public CompletableFuture<Map<Book.Genre, Integer>> getGenreStatistics() {
+        return submit(library::getGenreStatistics);
+    }
+
+    public CompletableFuture<Map<Book, Integer>> getMostPopularBooks(int limit) {
+        return submit(() -> library.getMostPopularBooks(limit));
+    }
+
+    public CompletableFuture<Map<Reader, Integer>> getMostActiveReaders(int limit) {
+        return submit(() -> library.getMostActiveReaders(limit));
+    }
+
+    public CompletableFuture<List<Reader>> getReadersWithOverdueBooks() {
+        return submit(library::getReadersWithOverdueBooks);
+    }
+
+    /**
+     * Выполняет произвольный запрос к библиотеке под общей блокировкой
+     * @param query запрос
+     * @return результат запроса
+     */
+    public <T> CompletableFuture<T> query(Function<LibraryManager, T> query) {
+        return submit(() -> query.apply(library));
+    }
+
+    /**
+     * Дожидается завершения уже принятых операций и останавливает исполнитель
+     */
+    @Override
+    public void close() {
+        executor.close();
+    }
+
+    private <T> CompletableFuture<T> submit(Supplier<T> action) {
+        return CompletableFuture.supplyAsync(() -> locked(action), executor);
+    }
+
+    private <T> T locked(Supplier<T> action) {
+        libraryLock.lock();
+        try {
+            return action.get();
+        } finally {
+            libraryLock.unlock();
+        }
+    }
+}
@@ -3,6 +3,8 @@ package ru.mentee.power.collections.library;
 import java.util.HashSet;
 import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
 
 public class Book {
     private String isbn;
@@ -11,7 +13,12 @@ public class Book {
     private Genre genre;
     private int publicationYear;
     private int pageCount;
-    private boolean available;
+    // Экземпляры книги: всего и свободных. Доступна книга, у которой есть хотя бы один свободный экземпляр
+    private volatile int totalCopies;
+    private final AtomicInteger availableCopies;
+
+    // Вызывается, когда книга становится доступной или недоступной
+    private Consumer<Book> availabilityListener;
 
     public enum Genre {
         FICTION, NON_FICTION, SCIENCE, HISTORY, FANTASY, DETECTIVE, ROMANCE, BIOGRAPHY, CHILDREN
@@ -25,7 +32,8 @@ public class Book {
         this.genre = genre;
 
         authors = new HashSet<>();
-        available = true;
+        totalCopies = 1;
+        availableCopies = new AtomicInteger(1);
     }
 
 
@@ -79,11 +87,106 @@ public class Book {
     }
 
     public boolean isAvailable() {
-        return available;
+        return availableCopies.get() > 0;
     }
 
+    /**
+     * Отмечает один экземпляр книги как свободный или занятый.
+     * false занимает один свободный экземпляр, true освобождает один экземпляр, если свободных нет.
+     * Выданные экземпляры остаются выданными и освобождаются при возврате
+     * @param available true, если книга должна быть доступна
+     */
     public void setAvailable(boolean available) {
-        this.available = available;
+        if (available) {
+            if (!isAvailable()) {
+                releaseCopy();
+            }
+        } else {
+            reserveCopy();
+        }
+    }
+
+    public int getTotalCopies() {
+        return totalCopies;
+    }
+
+    /**
+     * Изменяет количество экземпляров. Количество свободных экземпляров меняется на ту же величину
+     * @param totalCopies новое количество экземпляров (не меньше 1)
+     */
+    public void setTotalCopies(int totalCopies) {
+        if (totalCopies < 1) {
+            throw new IllegalArgumentException("Количество экземпляров должно быть положительным");
+        }
+        int delta = totalCopies - this.totalCopies;
+        this.totalCopies = totalCopies;
+        int previous = availableCopies.getAndUpdate(free -> Math.clamp(free + delta, 0, totalCopies));
+        if ((previous > 0) != isAvailable()) {
+            notifyAvailabilityChanged();
+        }
+    }
+
+    public int getAvailableCopies() {
+        return availableCopies.get();
+    }
+
+    public void setAvailableCopies(int availableCopies) {
+        if (availableCopies < 0 || availableCopies > totalCopies) {
+            throw new IllegalArgumentException("Некорректное количество свободных экземпляров: " + availableCopies);
+        }
+        int previous = this.availableCopies.getAndSet(availableCopies);
+        if ((previous > 0) != (availableCopies > 0)) {
+            notifyAvailabilityChanged();
+        }
+    }
+
+    /**
+     * Атомарно занимает один свободный экземпляр
+     * @return true если экземпляр занят, false если свободных экземпляров нет
+     */
+    public boolean reserveCopy() {
+        while (true) {
+            int free = availableCopies.get();
+            if (free == 0) {
+                return false;
+            }
+            if (availableCopies.compareAndSet(free, free - 1)) {
+                if (free == 1) {
+                    notifyAvailabilityChanged();
+                }
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Атомарно освобождает один экземпляр
+     * @return true если экземпляр освобожден, false если все экземпляры уже свободны
+     */
+    public boolean releaseCopy() {
+        while (true) {
+            int free = availableCopies.get();
+            if (free >= totalCopies) {
+                return false;
+            }
+            if (availableCopies.compareAndSet(free, free + 1)) {
+                if (free == 0) {
+                    notifyAvailabilityChanged();
+                }
+                return true;
+            }
+        }
+    }
+
+    void setAvailabilityListener(Consumer<Book> availabilityListener) {
+        this.availabilityListener = availabilityListener;
+    }
+
+    private void notifyAvailabilityChanged() {
+        Consumer<Book> listener = availabilityListener;
+        if (listener != null) {
+            listener.accept(this);
+        }
     }
 
     public void addAuthor(String author) {
@@ -0,0 +1,195 @@
+package ru.mentee.power.collections.library;
+
+import java.time.LocalDate;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Счетчики выдач и возвратов по дням, жанрам книг и категориям читателей.
+ *
+ * Для каждого дня (epoch day) хранится массив счетчиков по всем сочетаниям жанра и категории,
+ * включая неизвестные жанр и категорию. Счетчики обновляются при каждой выдаче и возврате,
+ * поэтому запрос за период просматривает только дни этого периода, а не историю выдач.
+ */
+public class BorrowingTimeSeries {
+    private static final Book.Genre[] GENRES = Book.Genre.values();
+    private static final Reader.ReaderCategory[] CATEGORIES = Reader.ReaderCategory.values();
+
+    // Последний индекс жанра и категории отведен под null
+    private static final int CATEGORY_SLOTS = CATEGORIES.length + 1;
+    private static final int CELLS = (GENRES.length + 1) * CATEGORY_SLOTS;
+    private static final int BORROWED = 0;
+    private static final int RETURNED = CELLS;
+
+    private final Map<Long, int[]> days = new HashMap<>();
+
+    /**
+     * Учитывает выдачу книги
+     * @param day день выдачи
+     * @param genre жанр книги
+     * @param category категория читателя
+     */
+    public void recordBorrowing(LocalDate day, Book.Genre genre, Reader.ReaderCategory category) {
+        counters(day)[BORROWED + cell(genre, category)]++;
+    }
+
+    /**
+     * Учитывает возврат книги
+     * @param day день возврата
+     * @param genre жанр книги
+     * @param category категория читателя
+     */
+    public void recordReturn(LocalDate day, Book.Genre genre, Reader.ReaderCategory category) {
+        counters(day)[RETURNED + cell(genre, category)]++;
+    }
+
+    /**
+     * Количество выдач за период с фильтром по жанру и категории
+     * @param from первый день периода
+     * @param to последний день периода (включительно)
+     * @param genre жанр или null для всех жанров
+     * @param category категория или null для всех категорий
+     * @return количество выдач
+     */
+    public long getBorrowingCount(LocalDate from, LocalDate to, Book.Genre genre, Reader.ReaderCategory category) {
+        return count(BORROWED, from, to, genre, category);
+    }
+
+    /**
+     * Количество возвратов за период с фильтром по жанру и категории
+     * @param from первый день периода
+     * @param to последний день периода (включительно)
+     * @param genre жанр или null для всех жанров
+     * @param category категория или null для всех категорий
+     * @return количество возвратов
+     */
+    public long getReturnCount(LocalDate from, LocalDate to, Book.Genre genre, Reader.ReaderCategory category) {
+        return count(RETURNED, from, to, genre, category);
+    }
+
+    /**
+     * Количество выдач по дням
+     * @param from первый день периода
+     * @param to последний день периода (включительно)
+     * @return массив, в котором i-й элемент - количество выдач в день {@code from + i}
+     */
+    public long[] getDailyBorrowings(LocalDate from, LocalDate to) {
+        return daily(BORROWED, from, to);
+    }
+
+    /**
+     * Количество возвратов по дням
+     * @param from первый день периода
+     * @param to последний день периода (включительно)
+     * @return массив, в котором i-й элемент - количество возвратов в день {@code from + i}
+     */
+    public long[] getDailyReturns(LocalDate from, LocalDate to) {
+        return daily(RETURNED, from, to);
+    }
+
+    /**
+     * Количество выдач за период по жанрам (книги без жанра не учитываются)
+     * @param from первый день периода
+     * @param to последний день периода (включительно)
+     * @return количество выдач по жанрам, только ненулевые
+     */
+    public Map<Book.Genre, Long> getBorrowingsByGenre(LocalDate from, LocalDate to) {
+        long[] totals = new long[GENRES.length];
+        forEachDay(from, to, counters -> {
+            for (int genre = 0; genre < GENRES.length; genre++) {
+                for (int category = 0; category < CATEGORY_SLOTS; category++) {
+                    totals[genre] += counters[BORROWED + genre * CATEGORY_SLOTS + category];
+                }
+            }
+        });
+        Map<Book.Genre, Long> result = new EnumMap<>(Book.Genre.class);
+        for (int genre = 0; genre < GENRES.length; genre++) {
+            if (totals[genre] > 0) {
+                result.put(GENRES[genre], totals[genre]);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Количество выдач за период по категориям читателей (читатели без категории не учитываются)
+     * @param from первый день периода
+     * @param to последний день периода (включительно)
+     * @return количество выдач по категориям, только ненулевые
+     */
+    public Map<Reader.ReaderCategory, Long> getBorrowingsByCategory(LocalDate from, LocalDate to) {
+        long[] totals = new long[CATEGORIES.length];
+        forEachDay(from, to, counters -> {
+            for (int genre = 0; genre <= GENRES.length; genre++) {
+                for (int category = 0; category < CATEGORIES.length; category++) {
+                    totals[category] += counters[BORROWED + genre * CATEGORY_SLOTS + category];
+                }
+            }
+        });
+        Map<Reader.ReaderCategory, Long> result = new EnumMap<>(Reader.ReaderCategory.class);
+        for (int category = 0; category < CATEGORIES.length; category++) {
+            if (totals[category] > 0) {
+                result.put(CATEGORIES[category], totals[category]);
+            }
+        }
+        return result;
+    }
+
+    private long count(int offset, LocalDate from, LocalDate to, Book.Genre genre, Reader.ReaderCategory category) {
+        long[] total = new long[1];
+        forEachDay(from, to, counters -> {
+            for (int g = 0; g <= GENRES.length; g++) {
+                if (genre != null && g != genre.ordinal()) {
+                    continue;
+                }
+                for (int c = 0; c < CATEGORY_SLOTS; c++) {
+                    if (category == null || c == category.ordinal()) {
+                        total[0] += counters[offset + g * CATEGORY_SLOTS + c];
+                    }
+                }
+            }
+        });
+        return total[0];
+    }
+
+    private long[] daily(int offset, LocalDate from, LocalDate to) {
+        long first = from.toEpochDay();
+        long last = to.toEpochDay();
+        if (last < first) {
+            return new long[0];
+        }
+        long[] result = new long[Math.toIntExact(last - first + 1)];
+        for (long day = first; day <= last; day++) {
+            int[] counters = days.get(day);
+            if (counters != null) {
+                long sum = 0;
+                for (int i = 0; i < CELLS; i++) {
+                    sum += counters[offset + i];
+                }
+                result[(int) (day - first)] = sum;
+            }
+        }
+        return result;
+    }
+
+    private void forEachDay(LocalDate from, LocalDate to, Consumer<int[]> action) {
+        for (long day = from.toEpochDay(); day <= to.toEpochDay(); day++) {
+            int[] counters = days.get(day);
+            if (counters != null) {
+                action.accept(counters);
+            }
+        }
+    }
+
+    private int[] counters(LocalDate day) {
+        return days.computeIfAbsent(day.toEpochDay(), key -> new int[2 * CELLS]);
+    }
+
+    private static int cell(Book.Genre genre, Reader.ReaderCategory category) {
+        int genreSlot = genre == null ? GENRES.length : genre.ordinal();
+        int categorySlot = category == null ? CATEGORIES.length : category.ordinal();
+        return genreSlot * CATEGORY_SLOTS + categorySlot;
+    }
+}
@@ -0,0 +1,165 @@
+package ru.mentee.power.collections.library;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Индекс совместных выдач: "читатели, бравшие эту книгу, брали также...".
+ *
+ * Для каждой книги хранится разреженный счетчик книг, которые брали те же читатели.
+ * Счетчик ограничен: когда в нем становится больше {@code topN * 4} книг,
+ * он обрезается до {@code topN * 2} самых частых. Отсортированный список рекомендаций
+ * кэшируется и пересчитывается только после изменения счетчиков книги.
+ */
+public class CoBorrowingIndex {
+    private final int topN;
+    private final int maxCounters;
+    private final int prunedCounters;
+
+    private final Map<String, Set<String>> booksByReader = new HashMap<>();
+    private Map<String, Map<String, Integer>> counters = new HashMap<>();
+    private final Map<String, List<String>> recommendations = new HashMap<>();
+
+    /**
+     * @param topN сколько рекомендаций хранится для каждой книги
+     */
+    public CoBorrowingIndex(int topN) {
+        if (topN <= 0) {
+            throw new IllegalArgumentException("Количество рекомендаций должно быть положительным");
+        }
+        this.topN = topN;
+        this.maxCounters = topN * 4;
+        this.prunedCounters = topN * 2;
+    }
+
+    /**
+     * Учитывает выдачу книги читателю. Повторная выдача той же книги тому же читателю ничего не меняет
+     * @param readerId ID читателя
+     * @param isbn ISBN книги
+     */
+    public void recordBorrowing(String readerId, String isbn) {
+        Set<String> borrowed = booksByReader.computeIfAbsent(readerId, id -> new HashSet<>());
+        if (!borrowed.add(isbn)) {
+            return;
+        }
+        for (String other : borrowed) {
+            if (!other.equals(isbn)) {
+                increment(isbn, other);
+                increment(other, isbn);
+            }
+        }
+    }
+
+    /**
+     * Удаляет книгу из индекса: она пропадает из рекомендаций других книг
+     * и больше не учитывается при выдачах другим читателям, которые ее брали
+     * @param isbn ISBN книги
+     */
+    public void removeBook(String isbn) {
+        for (Set<String> borrowed : booksByReader.values()) {
+            borrowed.remove(isbn);
+        }
+        counters.remove(isbn);
+        recommendations.remove(isbn);
+        counters.forEach((other, counts) -> {
+            if (counts.remove(isbn) != null) {
+                recommendations.remove(other);
+            }
+        });
+    }
+
+    /**
+     * Возвращает книги, которые чаще всего брали вместе с заданной
+     * @param isbn ISBN книги
+     * @param limit максимальное количество книг (не больше topN)
+     * @return список ISBN от самых частых к самым редким
+     * @throws IllegalArgumentException если limit отрицательный
+     */
+    public List<String> getAlsoBorrowed(String isbn, int limit) {
+        if (limit < 0) {
+            throw new IllegalArgumentException("Количество книг не может быть отрицательным");
+        }
+        List<String> top = recommendations.get(isbn);
+        if (top == null) {
+            Map<String, Integer> counts = counters.get(isbn);
+            if (counts == null) {
+                return Collections.emptyList();
+            }
+            top = Collections.unmodifiableList(topKeys(counts, topN));
+            recommendations.put(isbn, top);
+        }
+        return top.size() <= limit ? top : top.subList(0, limit);
+    }
+
+    /**
+     * Полностью пересобирает индекс по истории выдач. Счетчики книг считаются параллельно
+     * @param history история выдач
+     */
+    public void rebuild(Collection<Borrowing> history) {
+        Map<String, Set<String>> byReader = history.parallelStream()
+                .collect(Collectors.groupingByConcurrent(Borrowing::getReaderId,
+                        Collectors.mapping(Borrowing::getIsbn, Collectors.toSet())));
+        Map<String, List<String>> readersByBook = new HashMap<>();
+        byReader.forEach((readerId, isbns) ->
+                isbns.forEach(isbn -> readersByBook.computeIfAbsent(isbn, key -> new ArrayList<>()).add(readerId)));
+
+        // Каждая книга считается независимо, поэтому потоки не делят изменяемых счетчиков
+        Map<String, Map<String, Integer>> rebuilt = new ConcurrentHashMap<>();
+        readersByBook.entrySet().parallelStream().forEach(entry -> {
+            Map<String, Integer> counts = new HashMap<>();
+            for (String readerId : entry.getValue()) {
+                for (String other : byReader.get(readerId)) {
+                    if (!other.equals(entry.getKey())) {
+                        counts.merge(other, 1, Integer::sum);
+                    }
+                }
+            }
+            if (!counts.isEmpty()) {
+                rebuilt.put(entry.getKey(), counts.size() > maxCounters ? prune(counts) : counts);
+            }
+        });
+
+        booksByReader.clear();
+        byReader.forEach((readerId, isbns) -> booksByReader.put(readerId, new HashSet<>(isbns)));
+        counters = new HashMap<>(rebuilt);
+        recommendations.clear();
+    }
+
+    private void increment(String isbn, String other) {
+        Map<String, Integer> counts = counters.computeIfAbsent(isbn, key -> new HashMap<>());
+        counts.merge(other, 1, Integer::sum);
+        if (counts.size() > maxCounters) {
+            counters.put(isbn, prune(counts));
+        }
+        recommendations.remove(isbn);
+    }
+
+    private Map<String, Integer> prune(Map<String, Integer> counts) {
+        Map<String, Integer> pruned = new HashMap<>();
+        for (String isbn : topKeys(counts, prunedCounters)) {
+            pruned.put(isbn, counts.get(isbn));
+        }
+        return pruned;
+    }
+
+    private static List<String> topKeys(Map<String, Integer> counts, int limit) {
+        List<Map.Entry<String, Integer>> entries = new ArrayList<>(counts.entrySet());
+        entries.sort((o1, o2) -> {
+            int byCount = o2.getValue().compareTo(o1.getValue());
+            return byCount != 0 ? byCount : o1.getKey().compareTo(o2.getKey());
+        });
+        List<String> result = new ArrayList<>(Math.min(limit, entries.size()));
+        for (int i = 0; i < Math.min(limit, entries.size()); i++) {
+            result.add(entries.get(i).getKey());
+        }
+        return result;
+    }
+}
@@ -0,0 +1,406 @@
+package ru.mentee.power.collections.library;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * Поиск почти одинаковых книг (дубликатов под разными ISBN) методом MinHash + LSH.
+ *
+ * Для каждой книги строится MinHash-подпись по триграммам названия и именам авторов.
+ * Подпись делится на полосы, и книги, совпавшие хотя бы в одной полосе, становятся кандидатами.
+ * Кандидаты проверяются по оценке сходства Жаккара, поэтому добавление книги стоит
+ * O(размер подписи), а не O(количество книг).
+ *
+ * Книгам выдаются внутренние номера, а корзины LSH хранятся в примитивных массивах:
+ * хэш-таблица "ключ полосы -> последняя запись" и двусвязные списки записей, где запись
+ * книги {@code id} в полосе {@code band} имеет номер {@code id * bands + band}.
+ */
+public class DuplicateDetector {
+    private static final int SHINGLE_LENGTH = 3;
+    // Сколько последних книг корзины проверяется при добавлении. Ограничение не дает большим
+    // группам дубликатов превратить добавление в квадратичный проход: чтобы попасть в группу,
+    // достаточно совпасть с любым из ее недавних членов
+    private static final int MAX_BUCKET_SCAN = 64;
+
+    private static final int NEVER_USED = -1;
+    private static final int EMPTY_CHAIN = -2;
+
+    private final int bands;
+    private final int rows;
+    private final double threshold;
+    private final long[] multipliers;
+    private final long[] increments;
+
+    private final Map<String, Integer> ids = new HashMap<>();
+    private String[] isbns = new String[16];
+    private int[][] signatures = new int[16][];
+    private int[] parents = new int[16];
+    private int[] freeIds = new int[16];
+    private int freeCount;
+    private int nextId;
+
+    private long[] bucketKeys = new long[64];
+    private int[] bucketHeads = filled(64, NEVER_USED);
+    private int usedBuckets;
+    private int[] entryNext;
+    private int[] entryPrev;
+
+    private boolean clustersDirty;
+
+    /**
+     * Создает детектор с параметрами по умолчанию: 16 полос по 4 хэша, порог сходства 0.6
+     */
+    public DuplicateDetector() {
+        this(16, 4, 0.6);
+    }
+
+    /**
+     * @param bands количество полос LSH
+     * @param rows количество хэшей в полосе
+     * @param threshold минимальная оценка сходства Жаккара, при которой книги считаются дубликатами
+     */
+    public DuplicateDetector(int bands, int rows, double threshold) {
+        if (bands <= 0 || rows <= 0) {
+            throw new IllegalArgumentException("Количество полос и хэшей должно быть положительным");
+        }
+        if (threshold < 0 || threshold > 1) {
+            throw new IllegalArgumentException("Порог сходства должен быть в диапазоне [0, 1]");
+        }
+        this.bands = bands;
+        this.rows = rows;
+        this.threshold = threshold;
+        entryNext = new int[isbns.length * bands];
+        entryPrev = new int[isbns.length * bands];
+
+        // Фиксированное зерно: подписи одной и той же книги всегда совпадают
+        Random random = new Random(0x5EED);
+        multipliers = new long[bands * rows];
+        increments = new long[bands * rows];
+        for (int i = 0; i < multipliers.length; i++) {
+            multipliers[i] = random.nextLong() | 1;
+            increments[i] = random.nextLong();
+        }
+    }
+
+    /**
+     * Добавляет книгу и возвращает ISBN уже известных книг, похожих на нее
+     * @param book книга
+     * @return ISBN найденных дубликатов (пустое множество, если их нет)
+     */
+    public Set<String> add(Book book) {
+        remove(book.getIsbn());
+
+        int[] signature = signature(book);
+        int id = allocateId(book.getIsbn(), signature);
+
+        Set<String> duplicates = new HashSet<>();
+        Set<Integer> checked = new HashSet<>();
+        for (int band = 0; band < bands; band++) {
+            int slot = findOrCreateBucket(bucketKey(signature, band));
+            unionSimilar(id, bucketHeads[slot], checked, duplicates);
+            link(slot, id * bands + band);
+        }
+        return duplicates;
+    }
+
+    /**
+     * Удаляет книгу из детектора
+     * @param isbn ISBN книги
+     */
+    public void remove(String isbn) {
+        Integer id = ids.remove(isbn);
+        if (id == null) {
+            return;
+        }
+        for (int band = 0; band < bands; band++) {
+            unlink(findBucket(bucketKey(signatures[id], band)), id * bands + band);
+        }
+        isbns[id] = null;
+        signatures[id] = null;
+        if (freeCount == freeIds.length) {
+            freeIds = Arrays.copyOf(freeIds, freeIds.length * 2);
+        }
+        freeIds[freeCount++] = id;
+        clustersDirty = true;
+    }
+
+    /**
+     * Возвращает группы книг, которые считаются дубликатами друг друга
+     * @return список групп ISBN (в каждой группе не меньше двух книг)
+     */
+    public List<Set<String>> getClusters() {
+        if (clustersDirty) {
+            rebuildClusters();
+        }
+        Map<Integer, Set<String>> clusters = new HashMap<>();
+        for (int id : ids.values()) {
+            clusters.computeIfAbsent(find(id), root -> new HashSet<>()).add(isbns[id]);
+        }
+        List<Set<String>> result = new ArrayList<>();
+        for (Set<String> cluster : clusters.values()) {
+            if (cluster.size() > 1) {
+                result.add(cluster);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Оценивает сходство Жаккара двух книг по их подписям
+     * @param isbn1 ISBN первой книги
+     * @param isbn2 ISBN второй книги
+     * @return оценка сходства или 0, если одной из книг нет в детекторе
+     */
+    public double estimateSimilarity(String isbn1, String isbn2) {
+        Integer first = ids.get(isbn1);
+        Integer second = ids.get(isbn2);
+        return first == null || second == null ? 0 : similarity(signatures[first], signatures[second]);
+    }
+
+    /**
+     * @return количество книг в детекторе
+     */
+    public int size() {
+        return ids.size();
+    }
+
+    private void rebuildClusters() {
+        for (int id : ids.values()) {
+            parents[id] = id;
+        }
+        // Каждая книга сравнивается с более старыми книгами своих корзин, как при добавлении
+        Set<Integer> checked = new HashSet<>();
+        Set<String> duplicates = new HashSet<>();
+        for (int id : ids.values()) {
+            checked.clear();
+            for (int band = 0; band < bands; band++) {
+                unionSimilar(id, entryNext[id * bands + band], checked, duplicates);
+            }
+        }
+        clustersDirty = false;
+    }
+
+    /**
+     * Объединяет книгу со всеми похожими книгами цепочки корзины, начиная с записи {@code entry}.
+     * Просматривается не больше {@link #MAX_BUCKET_SCAN} записей
+     * @param checked номера книг, уже сравненных с этой книгой в других полосах
+     * @param duplicates сюда добавляются ISBN похожих книг
+     */
+    private void unionSimilar(int id, int entry, Set<Integer> checked, Set<String> duplicates) {
+        for (int scanned = 0; entry >= 0 && scanned < MAX_BUCKET_SCAN; entry = entryNext[entry], scanned++) {
+            int other = entry / bands;
+            if (checked.add(other) && similarity(signatures[id], signatures[other]) >= threshold) {
+                duplicates.add(isbns[other]);
+                union(id, other);
+            }
+        }
+    }
+
+    private int allocateId(String isbn, int[] signature) {
+        int id;
+        if (freeCount > 0) {
+            id = freeIds[--freeCount];
+        } else {
+            id = nextId++;
+            if (id == isbns.length) {
+                int capacity = isbns.length * 2;
+                isbns = Arrays.copyOf(isbns, capacity);
+                signatures = Arrays.copyOf(signatures, capacity);
+                parents = Arrays.copyOf(parents, capacity);
+                entryNext = Arrays.copyOf(entryNext, capacity * bands);
+                entryPrev = Arrays.copyOf(entryPrev, capacity * bands);
+            }
+        }
+        ids.put(isbn, id);
+        isbns[id] = isbn;
+        signatures[id] = signature;
+        parents[id] = id;
+        return id;
+    }
+
+    private int[] signature(Book book) {
+        int[] signature = new int[multipliers.length];
+        Arrays.fill(signature, Integer.MAX_VALUE);
+
+        String title = normalize(book.getTitle());
+        if (title.length() <= SHINGLE_LENGTH) {
+            addFeature(signature, title.hashCode());
+        } else {
+            // Хэш триграммы считается по символам, как String.hashCode, но без создания подстрок
+            for (int i = 0; i + SHINGLE_LENGTH <= title.length(); i++) {
+                int hash = 0;
+                for (int j = i; j < i + SHINGLE_LENGTH; j++) {
+                    hash = 31 * hash + title.charAt(j);
+                }
+                addFeature(signature, hash);
+            }
+        }
+        for (String author : book.getAuthors()) {
+            // Автор - отдельный признак, не пересекающийся с триграммами названия
+            addFeature(signature, ~normalize(author).hashCode());
+        }
+        return signature;
+    }
+
+    private void addFeature(int[] signature, int feature) {
+        for (int i = 0; i < signature.length; i++) {
+            int hash = (int) ((multipliers[i] * feature + increments[i]) >>> 32);
+            if (hash < signature[i]) {
+                signature[i] = hash;
+            }
+        }
+    }
+
+    private long bucketKey(int[] signature, int band) {
+        int hash = 1;
+        for (int i = band * rows; i < (band + 1) * rows; i++) {
+            hash = 31 * hash + signature[i];
+        }
+        return ((long) band << 32) | (hash & 0xFFFFFFFFL);
+    }
+
+    // ============ Хэш-таблица корзин с открытой адресацией ============
+
+    private int findBucket(long key) {
+        int mask = bucketKeys.length - 1;
+        for (int slot = mix(key) & mask; ; slot = (slot + 1) & mask) {
+            if (bucketHeads[slot] == NEVER_USED || bucketKeys[slot] == key) {
+                return slot;
+            }
+        }
+    }
+
+    private int findOrCreateBucket(long key) {
+        int slot = findBucket(key);
+        if (bucketHeads[slot] != NEVER_USED) {
+            return slot;
+        }
+        if ((usedBuckets + 1) * 2 > bucketKeys.length) {
+            rehash();
+            slot = findBucket(key);
+        }
+        bucketKeys[slot] = key;
+        bucketHeads[slot] = EMPTY_CHAIN;
+        usedBuckets++;
+        return slot;
+    }
+
+    /**
+     * Перестраивает таблицу корзин, выбрасывая опустевшие корзины
+     */
+    private void rehash() {
+        long[] oldKeys = bucketKeys;
+        int[] oldHeads = bucketHeads;
+        int live = 0;
+        for (int head : oldHeads) {
+            if (head >= 0) {
+                live++;
+            }
+        }
+        int capacity = Integer.highestOneBit(Math.max(64, live * 4));
+        bucketKeys = new long[capacity];
+        bucketHeads = filled(capacity, NEVER_USED);
+        usedBuckets = live;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldHeads[i] >= 0) {
+                int slot = findBucket(oldKeys[i]);
+                bucketKeys[slot] = oldKeys[i];
+                bucketHeads[slot] = oldHeads[i];
+            }
+        }
+    }
+
+    private void link(int slot, int entry) {
+        int head = bucketHeads[slot];
+        entryPrev[entry] = -1;
+        entryNext[entry] = head >= 0 ? head : -1;
+        if (head >= 0) {
+            entryPrev[head] = entry;
+        }
+        bucketHeads[slot] = entry;
+    }
+
+    private void unlink(int slot, int entry) {
+        int prev = entryPrev[entry];
+        int next = entryNext[entry];
+        if (prev >= 0) {
+            entryNext[prev] = next;
+        } else {
+            bucketHeads[slot] = next >= 0 ? next : EMPTY_CHAIN;
+        }
+        if (next >= 0) {
+            entryPrev[next] = prev;
+        }
+    }
+
+    // ============ Вспомогательные методы ============
+
+    private static double similarity(int[] first, int[] second) {
+        int equal = 0;
+        for (int i = 0; i < first.length; i++) {
+            if (first[i] == second[i]) {
+                equal++;
+            }
+        }
+        return (double) equal / first.length;
+    }
+
+    private static String normalize(String value) {
+        if (value == null) {
+            return "";
+        }
+        StringBuilder sb = new StringBuilder(value.length());
+        boolean space = false;
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (Character.isLetterOrDigit(c)) {
+                if (space && !sb.isEmpty()) {
+                    sb.append(' ');
+                }
+                sb.append(Character.toLowerCase(c));
+                space = false;
+            } else {
+                space = true;
+            }
+        }
+        return sb.toString();
+    }
+
+    private int find(int id) {
+        int root = id;
+        while (parents[root] != root) {
+            root = parents[root];
+        }
+        while (parents[id] != root) {
+            int next = parents[id];
+            parents[id] = root;
+            id = next;
+        }
+        return root;
+    }
+
+    private void union(int first, int second) {
+        int firstRoot = find(first);
+        int secondRoot = find(second);
+        if (firstRoot != secondRoot) {
+            parents[firstRoot] = secondRoot;
+        }
+    }
+
+    private static int mix(long key) {
+        long hash = key * 0x9E3779B97F4A7C15L;
+        return (int) (hash ^ (hash >>> 32));
+    }
+
+    private static int[] filled(int length, int value) {
+        int[] array = new int[length];
+        Arrays.fill(array, value);
+        return array;
+    }
+}
@@ -0,0 +1,168 @@
+package ru.mentee.power.collections.library;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentMap;
+import java.util.stream.Collectors;
+
+/**
+ * Расчет штрафов за просроченные выдачи с итогами по читателям.
+ *
+ * Штраф начисляется за каждый день просрочки сверх льготного периода по тарифу категории
+ * читателя и ограничен максимальной суммой. Для возвращенной книги просрочка считается
+ * до дня возврата, для невозвращенной - до даты расчета. Суммы хранятся в копейках,
+ * даты сравниваются как номера дней (epoch day).
+ *
+ * {@link #computeFines(LocalDate)} считает всю историю за один параллельный проход.
+ * {@link #computeFinesIncrementally(LocalDate)} запоминает штрафы по возвращенным выдачам
+ * (они больше не меняются) и при следующих вызовах просматривает только новые выдачи
+ * и выдачи, которые были открыты при прошлом расчете.
+ *
+ * Расчет нельзя выполнять одновременно с изменением библиотеки.
+ */
+public class FineEngine {
+
+    /**
+     * Тариф штрафа
+     * @param dailyRate штраф за день просрочки в копейках
+     * @param graceDays сколько дней просрочки не штрафуются
+     * @param maxFine максимальный штраф за одну выдачу в копейках
+     */
+    public record Rate(long dailyRate, int graceDays, long maxFine) {
+        public Rate {
+            if (dailyRate < 0 || graceDays < 0 || maxFine < 0) {
+                throw new IllegalArgumentException("Параметры тарифа не могут быть отрицательными");
+            }
+        }
+
+        long fine(long overdueDays) {
+            long chargedDays = overdueDays - graceDays;
+            if (chargedDays <= 0) {
+                return 0;
+            }
+            // Сравнение через деление не переполняется при больших тарифах
+            if (dailyRate != 0 && chargedDays > maxFine / dailyRate) {
+                return maxFine;
+            }
+            return Math.min(chargedDays * dailyRate, maxFine);
+        }
+    }
+
+    private final LibraryManager library;
+    private final Rate defaultRate;
+    private final Map<Reader.ReaderCategory, Rate> rates = new EnumMap<>(Reader.ReaderCategory.class);
+
+    // Состояние инкрементального расчета
+    private int processedHistory;
+    private final Map<String, Long> frozenFines = new HashMap<>();
+    private List<Borrowing> openBorrowings = new ArrayList<>();
+
+    /**
+     * @param library библиотека
+     * @param defaultRate тариф для категорий без отдельного тарифа
+     */
+    public FineEngine(LibraryManager library, Rate defaultRate) {
+        this.library = library;
+        this.defaultRate = defaultRate;
+    }
+
+    /**
+     * Задает тариф для категории читателей. Сбрасывает состояние инкрементального расчета
+     * @param category категория
+     * @param rate тариф
+     */
+    public void setRate(Reader.ReaderCategory category, Rate rate) {
+        rates.put(category, rate);
+        reset();
+    }
+
+    /**
+     * Сбрасывает состояние инкрементального расчета, следующий расчет просмотрит всю историю
+     */
+    public void reset() {
+        processedHistory = 0;
+        frozenFines.clear();
+        openBorrowings = new ArrayList<>();
+    }
+
+    /**
+     * Считает штрафы по всей истории выдач за один параллельный проход
+     * @param today дата расчета
+     * @return сумма штрафов в копейках по ID читателя (только ненулевые)
+     */
+    public Map<String, Long> computeFines(LocalDate today) {
+        return finesByReader(library.borrowingsView(), today.toEpochDay());
+    }
+
+    /**
+     * Считает штрафы, пересчитывая только новые и еще не возвращенные выдачи
+     * @param today дата расчета
+     * @return сумма штрафов в копейках по ID читателя (только ненулевые)
+     */
+    public Map<String, Long> computeFinesIncrementally(LocalDate today) {
+        long todayDay = today.toEpochDay();
+        List<Borrowing> history = library.borrowingsView();
+        if (history.size() < processedHistory) {
+            reset();
+        }
+
+        // Новые выдачи делятся на завершенные (их штраф окончательный) и открытые
+        Map<Boolean, List<Borrowing>> fresh = history.subList(processedHistory, history.size()).parallelStream()
+                .collect(Collectors.partitioningBy(Borrowing::isReturned));
+        finesByReader(fresh.get(true), todayDay).forEach((readerId, fine) -> frozenFines.merge(readerId, fine, Long::sum));
+        processedHistory = history.size();
+
+        List<Borrowing> stillOpen = new ArrayList<>(openBorrowings.size() + fresh.get(false).size());
+        List<Borrowing> returned = new ArrayList<>();
+        for (List<Borrowing> borrowings : List.of(openBorrowings, fresh.get(false))) {
+            for (Borrowing borrowing : borrowings) {
+                if (borrowing.isReturned()) {
+                    returned.add(borrowing);
+                } else {
+                    stillOpen.add(borrowing);
+                }
+            }
+        }
+        finesByReader(returned, todayDay).forEach((readerId, fine) -> frozenFines.merge(readerId, fine, Long::sum));
+        openBorrowings = stillOpen;
+
+        Map<String, Long> result = new HashMap<>(frozenFines);
+        finesByReader(stillOpen, todayDay).forEach((readerId, fine) -> result.merge(readerId, fine, Long::sum));
+        return result;
+    }
+
+    /**
+     * Считает штраф по одной выдаче
+     * @param borrowing выдача
+     * @param today дата расчета
+     * @return штраф в копейках
+     */
+    public long computeFine(Borrowing borrowing, LocalDate today) {
+        return fine(borrowing, today.toEpochDay());
+    }
+
+    private Map<String, Long> finesByReader(List<Borrowing> borrowings, long todayDay) {
+        ConcurrentMap<String, Long> fines = borrowings.parallelStream()
+                .collect(Collectors.toConcurrentMap(Borrowing::getReaderId,
+                        borrowing -> fine(borrowing, todayDay), Long::sum));
+        fines.values().removeIf(fine -> fine == 0);
+        return fines;
+    }
+
+    private long fine(Borrowing borrowing, long todayDay) {
+        long endDay = borrowing.isReturned() ? borrowing.getReturnDate().toEpochDay() : todayDay;
+        long overdueDays = endDay - borrowing.getDueDate().toEpochDay();
+        if (overdueDays <= 0) {
+            return 0;
+        }
+        Reader reader = library.getReaderById(borrowing.getReaderId());
+        Rate rate = reader == null || reader.getCategory() == null
+                ? defaultRate
+                : rates.getOrDefault(reader.getCategory(), defaultRate);
+        return rate.fine(overdueDays);
+    }
+}
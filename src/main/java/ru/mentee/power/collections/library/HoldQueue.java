@@ -0,0 +1,274 @@
+package ru.mentee.power.collections.library;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Очереди бронирования книг.
+ *
+ * Для каждого ISBN хранится очередь ожидающих читателей (в порядке бронирования) и брони,
+ * для которых уже отложен экземпляр. Отложенная бронь действует {@code pickupDays} дней;
+ * сроки отслеживаются колесом таймеров с ячейкой на каждый день, поэтому проверка истекших
+ * броней просматривает только ячейки прошедших дней, а не все брони.
+ */
+public class HoldQueue {
+    private static final int WHEEL_SIZE = 64;
+    private static final int WHEEL_MASK = WHEEL_SIZE - 1;
+    private static final long NEVER = Long.MIN_VALUE;
+
+    /**
+     * Бронь, для которой отложен экземпляр книги
+     * @param isbn ISBN книги
+     * @param readerId ID читателя
+     * @param expiryDate последний день, когда читатель может забрать книгу
+     */
+    public record Hold(String isbn, String readerId, LocalDate expiryDate) {
+    }
+
+    private int pickupDays;
+
+    private final Map<String, LinkedHashSet<String>> waiting = new HashMap<>();
+    private final Map<String, Map<String, Hold>> ready = new HashMap<>();
+
+    // Ячейка колеса - день окончания брони по модулю WHEEL_SIZE. Снятые брони удаляются из ячеек лениво
+    private final List<List<Hold>> wheel = new ArrayList<>(WHEEL_SIZE);
+    private long lastExpiredDay = NEVER;
+
+    /**
+     * @param pickupDays сколько дней отложенный экземпляр ждет читателя
+     */
+    public HoldQueue(int pickupDays) {
+        this.pickupDays = checkPickupDays(pickupDays);
+        for (int i = 0; i < WHEEL_SIZE; i++) {
+            wheel.add(new ArrayList<>());
+        }
+    }
+
+    public int getPickupDays() {
+        return pickupDays;
+    }
+
+    /**
+     * Изменяет срок ожидания для броней, которые будут отложены после вызова
+     * @param pickupDays сколько дней отложенный экземпляр ждет читателя
+     */
+    public void setPickupDays(int pickupDays) {
+        this.pickupDays = checkPickupDays(pickupDays);
+    }
+
+    /**
+     * Ставит читателя в конец очереди
+     * @param isbn ISBN книги
+     * @param readerId ID читателя
+     * @return true если читатель добавлен, false если у него уже есть бронь этой книги
+     */
+    public boolean enqueue(String isbn, String readerId) {
+        if (getReadyHold(isbn, readerId) != null) {
+            return false;
+        }
+        return waiting.computeIfAbsent(isbn, key -> new LinkedHashSet<>()).add(readerId);
+    }
+
+    /**
+     * Откладывает экземпляр для читателя, минуя очередь
+     * @param isbn ISBN книги
+     * @param readerId ID читателя
+     * @param today текущая дата
+     * @return отложенная бронь
+     */
+    public Hold makeReady(String isbn, String readerId, LocalDate today) {
+        Hold hold = new Hold(isbn, readerId, today.plusDays(pickupDays));
+        ready.computeIfAbsent(isbn, key -> new LinkedHashMap<>()).put(readerId, hold);
+        wheel.get((int) (hold.expiryDate().toEpochDay() & WHEEL_MASK)).add(hold);
+        return hold;
+    }
+
+    /**
+     * Восстанавливает отложенную бронь с известным сроком (например, из снимка)
+     * @param hold отложенная бронь
+     * @param today текущая дата
+     */
+    void restoreReady(Hold hold, LocalDate today) {
+        ready.computeIfAbsent(hold.isbn(), key -> new LinkedHashMap<>()).put(hold.readerId(), hold);
+        // Бронь, истекшая давно, кладется в ячейку вчерашнего дня, иначе первый оборот колеса ее не увидит
+        long slotDay = Math.max(hold.expiryDate().toEpochDay(), today.toEpochDay() - 1);
+        wheel.get((int) (slotDay & WHEEL_MASK)).add(hold);
+    }
+
+    /**
+     * Откладывает экземпляр для первого читателя в очереди
+     * @param isbn ISBN книги
+     * @param today текущая дата
+     * @return отложенная бронь или null, если очередь пуста
+     */
+    public Hold promote(String isbn, LocalDate today) {
+        LinkedHashSet<String> queue = waiting.get(isbn);
+        if (queue == null) {
+            return null;
+        }
+        Iterator<String> iterator = queue.iterator();
+        String readerId = iterator.next();
+        iterator.remove();
+        if (queue.isEmpty()) {
+            waiting.remove(isbn);
+        }
+        return makeReady(isbn, readerId, today);
+    }
+
+    /**
+     * Снимает отложенную бронь, когда читатель забирает книгу или отказывается от нее
+     * @param isbn ISBN книги
+     * @param readerId ID читателя
+     * @return true если у читателя была отложенная бронь
+     */
+    public boolean takeReady(String isbn, String readerId) {
+        Map<String, Hold> holds = ready.get(isbn);
+        if (holds == null || holds.remove(readerId) == null) {
+            return false;
+        }
+        if (holds.isEmpty()) {
+            ready.remove(isbn);
+        }
+        return true;
+    }
+
+    /**
+     * Убирает читателя из очереди ожидания
+     * @param isbn ISBN книги
+     * @param readerId ID читателя
+     * @return true если читатель стоял в очереди
+     */
+    public boolean removeWaiting(String isbn, String readerId) {
+        LinkedHashSet<String> queue = waiting.get(isbn);
+        if (queue == null || !queue.remove(readerId)) {
+            return false;
+        }
+        if (queue.isEmpty()) {
+            waiting.remove(isbn);
+        }
+        return true;
+    }
+
+    /**
+     * Удаляет все брони читателя
+     * @param readerId ID читателя
+     * @return ISBN книг, для которых у читателя был отложен экземпляр
+     */
+    public List<String> removeReader(String readerId) {
+        List<String> emptied = new ArrayList<>();
+        for (String isbn : new ArrayList<>(waiting.keySet())) {
+            removeWaiting(isbn, readerId);
+        }
+        for (String isbn : new ArrayList<>(ready.keySet())) {
+            if (takeReady(isbn, readerId)) {
+                emptied.add(isbn);
+            }
+        }
+        return emptied;
+    }
+
+    /**
+     * Удаляет все брони книги
+     * @param isbn ISBN книги
+     */
+    public void removeBook(String isbn) {
+        waiting.remove(isbn);
+        ready.remove(isbn);
+    }
+
+    /**
+     * Снимает отложенные брони, срок которых закончился до указанной даты
+     * @param today текущая дата
+     * @return снятые брони в порядке дней окончания
+     */
+    public List<Hold> expire(LocalDate today) {
+        // Истекшими считаются брони, последний день которых уже прошел
+        long lastDay = today.toEpochDay() - 1;
+        List<Hold> expired = new ArrayList<>();
+        if (lastExpiredDay != NEVER && lastDay <= lastExpiredDay) {
+            return expired;
+        }
+        // После долгого перерыва (или при первом вызове) достаточно одного полного оборота колеса
+        long from = lastExpiredDay == NEVER
+                ? lastDay - WHEEL_MASK
+                : Math.max(lastExpiredDay + 1, lastDay - WHEEL_MASK);
+        for (long slotDay = from; slotDay <= lastDay; slotDay++) {
+            Iterator<Hold> iterator = wheel.get((int) (slotDay & WHEEL_MASK)).iterator();
+            while (iterator.hasNext()) {
+                Hold hold = iterator.next();
+                if (!isActive(hold)) {
+                    iterator.remove();
+                } else if (hold.expiryDate().toEpochDay() <= lastDay) {
+                    iterator.remove();
+                    takeReady(hold.isbn(), hold.readerId());
+                    expired.add(hold);
+                }
+            }
+        }
+        lastExpiredDay = lastDay;
+        expired.sort((o1, o2) -> o1.expiryDate().compareTo(o2.expiryDate()));
+        return expired;
+    }
+
+    /**
+     * @param isbn ISBN книги
+     * @return true если книгу ждет хотя бы один читатель
+     */
+    public boolean hasWaiting(String isbn) {
+        return waiting.containsKey(isbn);
+    }
+
+    /**
+     * @param isbn ISBN книги
+     * @return количество читателей в очереди на книгу
+     */
+    public int getWaitingCount(String isbn) {
+        LinkedHashSet<String> queue = waiting.get(isbn);
+        return queue == null ? 0 : queue.size();
+    }
+
+    /**
+     * @param isbn ISBN книги
+     * @param readerId ID читателя
+     * @return отложенная бронь читателя или null
+     */
+    public Hold getReadyHold(String isbn, String readerId) {
+        Map<String, Hold> holds = ready.get(isbn);
+        return holds == null ? null : holds.get(readerId);
+    }
+
+    /**
+     * @return все отложенные брони
+     */
+    List<Hold> getReadyHolds() {
+        List<Hold> result = new ArrayList<>();
+        ready.values().forEach(holds -> result.addAll(holds.values()));
+        return result;
+    }
+
+    /**
+     * @return очереди ожидания: ISBN -> ID читателей в порядке бронирования
+     */
+    Map<String, List<String>> getWaitingQueues() {
+        Map<String, List<String>> result = new LinkedHashMap<>();
+        waiting.forEach((isbn, queue) -> result.put(isbn, new ArrayList<>(queue)));
+        return result;
+    }
+
+    private static int checkPickupDays(int pickupDays) {
+        if (pickupDays < 0) {
+            throw new IllegalArgumentException("Срок ожидания не может быть отрицательным");
+        }
+        return pickupDays;
+    }
+
+    private boolean isActive(Hold hold) {
+        return getReadyHold(hold.isbn(), hold.readerId()) == hold;
+    }
+}
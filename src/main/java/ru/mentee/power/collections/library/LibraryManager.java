@@ -3,36 +3,100 @@ package ru.mentee.power.collections.library;
 import ru.mentee.power.collections.library.comparator.AvailabilityComparator;
 import ru.mentee.power.collections.library.comparator.PublicationYearComparator;
 import ru.mentee.power.collections.library.comparator.TitleComparator;
+import ru.mentee.power.collections.library.event.LibraryEvent;
+import ru.mentee.power.collections.library.event.LibraryEventBus;
+import ru.mentee.power.collections.library.store.BookStore;
+import ru.mentee.power.collections.library.store.InMemoryBookStore;
 
 import java.time.LocalDate;
 import java.util.*;
+import java.util.function.Consumer;
+import java.util.function.ObjIntConsumer;
 
 public class LibraryManager {
+    private static final int RECOMMENDATIONS_PER_BOOK = 20;
+    private static final int DEFAULT_HOLD_PICKUP_DAYS = 3;
+
     // TODO: Объявить коллекцию для хранения книг (Map<String, Book> с ключом ISBN)
-    private Map<String, Book> books;
+    private BookStore books;
 
     // TODO: Объявить коллекцию для хранения читателей (Map<String, Reader> с ключом ID)
     private Map<String, Reader> readers;
 
+    // Поиск читателей по email, началу имени и категории
+    private ReaderDirectory readerDirectory;
+
     // TODO: Объявить коллекцию для хранения истории выдач (List<Borrowing>)
     private List<Borrowing> borrowingsHistory;
 
+    // Количество выдач каждой книги каталога, обновляется при каждой выдаче
+    private Map<String, Integer> borrowCounts;
+
+    // Невозвращенные выдачи по ISBN, чтобы возврат и продление не просматривали всю историю
+    private Map<String, List<Borrowing>> activeBorrowings;
+
     // TODO: Объявить коллекцию для группировки книг по жанрам (Map<Book.Genre, Set<Book>>)
-    private Map<Book.Genre, Set<Book>> booksByGenres;
+    // Индексы хранят ISBN, а не сами книги, чтобы книги из файлового хранилища не оседали в памяти
+    private Map<Book.Genre, Set<String>> booksByGenres;
 
     // TODO: Объявить коллекцию для хранения авторов и их книг (Map<String, List<Book>>)
-    private Map<String, List<Book>> booksByAuthors;
+    private Map<String, List<String>> booksByAuthors;
+
+    // ISBN книг, у которых есть хотя бы один свободный экземпляр
+    private Set<String> availableBooks;
 
     // TODO: Объявить дополнительные коллекции для эффективной работы с данными (по необходимости)
 
+    // Необязательный поиск дубликатов, подключается через setDuplicateDetector
+    private DuplicateDetector duplicateDetector;
+
+    // Рекомендации "с этой книгой также брали", обновляются при каждой выдаче
+    private CoBorrowingIndex coBorrowingIndex;
+
+    // Очереди бронирования: возвращенный экземпляр сразу откладывается для следующего читателя
+    private HoldQueue holds;
+
+    // Количество выдач и возвратов по дням, жанрам и категориям читателей
+    private BorrowingTimeSeries borrowingTimeSeries;
+
+    // Необязательная шина событий для внешних систем, подключается через setEventBus
+    private LibraryEventBus eventBus;
+
     // TODO: Реализовать конструктор, который инициализирует все коллекции
 
     public LibraryManager() {
-        books = new HashMap<>();
-        readers = new HashMap<>();
-        borrowingsHistory = new ArrayList<>();
+        this(new InMemoryBookStore(), 16, 16);
+    }
+
+    /**
+     * Создает библиотеку поверх заданного хранилища книг. Книги, которые уже лежат
+     * в хранилище (например, в открытом заново файле), сразу попадают в индексы
+     * @param bookStore хранилище книг
+     */
+    public LibraryManager(BookStore bookStore) {
+        this(bookStore, 16, 16);
+    }
+
+    /**
+     * Создает библиотеку с коллекциями, заранее рассчитанными на заданный объем данных
+     * @param bookStore хранилище книг
+     * @param expectedReaders ожидаемое количество читателей
+     * @param expectedBorrowings ожидаемое количество выдач
+     */
+    LibraryManager(BookStore bookStore, int expectedReaders, int expectedBorrowings) {
+        books = bookStore;
+        readers = HashMap.newHashMap(expectedReaders);
+        readerDirectory = new ReaderDirectory(expectedReaders);
+        borrowingsHistory = new ArrayList<>(expectedBorrowings);
+        borrowCounts = new HashMap<>();
+        activeBorrowings = new HashMap<>();
         booksByGenres = new EnumMap<>(Book.Genre.class);
         booksByAuthors = new HashMap<>();
+        availableBooks = new LinkedHashSet<>();
+        coBorrowingIndex = new CoBorrowingIndex(RECOMMENDATIONS_PER_BOOK);
+        holds = new HoldQueue(DEFAULT_HOLD_PICKUP_DAYS);
+        borrowingTimeSeries = new BorrowingTimeSeries();
+        books.forEach(this::index);
     }
 
     // ============ Методы для работы с книгами ============
@@ -43,27 +107,15 @@ public class LibraryManager {
      * @return true если книга добавлена, false если книга с таким ISBN уже существует
      */
     public boolean addBook(Book book) {
-        if(books.containsKey(book.getIsbn())) {
+        if(!books.add(book)) {
             return false;
         }
+        index(book);
 
-        books.put(book.getIsbn(), book);
-
-        if(booksByGenres.containsKey(book.getGenre())) {
-            booksByGenres.get(book.getGenre()).add(book);
-        }
-        else{
-            booksByGenres.put(book.getGenre(), new HashSet<>(List.of(book)));
-        }
-
-        for (String author : book.getAuthors()) {
-            if(!booksByAuthors.containsKey(author)) {
-                booksByAuthors.put(author, new ArrayList<>(List.of(book)));
-            }
-            else{
-                booksByAuthors.get(author).add(book);
-            }
+        if(duplicateDetector != null) {
+            duplicateDetector.add(book);
         }
+        publish(new LibraryEvent.BookAdded(book.getIsbn()));
         return true;
     }
 
@@ -85,17 +137,69 @@ public class LibraryManager {
         Book removed = books.remove(isbn);
         if (removed == null) return false;
 
-        booksByGenres.get(removed.getGenre()).remove(removed);
-        removed.getAuthors().forEach(author -> booksByAuthors.get(author).remove(removed));
+        booksByGenres.get(removed.getGenre()).remove(isbn);
+        removed.getAuthors().forEach(author -> booksByAuthors.get(author).remove(isbn));
+        removed.setAvailabilityListener(null);
+        availableBooks.remove(isbn);
+        borrowCounts.remove(isbn);
+        coBorrowingIndex.removeBook(isbn);
+        holds.removeBook(isbn);
+        if(duplicateDetector != null) {
+            duplicateDetector.remove(isbn);
+        }
+        publish(new LibraryEvent.BookRemoved(isbn));
         return true;
     }
 
+    /**
+     * Подключает шину, в которую публикуются события добавления и удаления книг,
+     * выдачи, возврата и продления
+     * @param eventBus шина событий или null, чтобы отключить публикацию
+     */
+    public void setEventBus(LibraryEventBus eventBus) {
+        this.eventBus = eventBus;
+    }
+
+    /**
+     * Подключает поиск дубликатов. Уже добавленные книги индексируются сразу,
+     * новые - при каждом вызове addBook
+     * @param duplicateDetector детектор дубликатов или null, чтобы отключить поиск
+     */
+    public void setDuplicateDetector(DuplicateDetector duplicateDetector) {
+        this.duplicateDetector = duplicateDetector;
+        if(duplicateDetector != null) {
+            books.forEach(duplicateDetector::add);
+        }
+    }
+
+    /**
+     * Возвращает группы книг, похожих друг на друга по названию и авторам
+     * @return список групп дубликатов (пустой, если поиск дубликатов не подключен)
+     */
+    public List<List<Book>> findDuplicateBooks() {
+        List<List<Book>> result = new ArrayList<>();
+        if(duplicateDetector != null) {
+            duplicateDetector.getClusters().forEach(cluster -> result.add(resolve(cluster)));
+        }
+        return result;
+    }
+
     /**
      * Возвращает список всех книг
      * @return список книг
      */
     public List<Book> getAllBooks() {
-        return new ArrayList<>(books.values());
+        List<Book> result = new ArrayList<>(books.size());
+        books.forEach(result::add);
+        return result;
+    }
+
+    /**
+     * Передает все книги в обработчик без копирования в список
+     * @param action обработчик
+     */
+    public void forEachBook(Consumer<Book> action) {
+        books.forEach(action);
     }
 
     /**
@@ -104,7 +208,7 @@ public class LibraryManager {
      * @return список книг
      */
     public List<Book> getBooksByGenre(Book.Genre genre) {
-        return new ArrayList<>(booksByGenres.get(genre));
+        return resolve(booksByGenres.get(genre));
     }
 
     /**
@@ -113,7 +217,8 @@ public class LibraryManager {
      * @return список книг
      */
     public List<Book> getBooksByAuthor(String author) {
-        return booksByAuthors.get(author);
+        List<String> isbns = booksByAuthors.get(author);
+        return isbns == null ? null : resolve(isbns);
     }
 
     /**
@@ -123,11 +228,12 @@ public class LibraryManager {
      */
     public List<Book> searchBooksByTitle(String titlePart) {
         List<Book> result = new ArrayList<>();
-        for (Book book : books.values()) {
-            if(book.getTitle().toLowerCase().contains(titlePart.toLowerCase())) {
+        String lowerTitlePart = titlePart.toLowerCase();
+        books.forEach(book -> {
+            if(book.getTitle().toLowerCase().contains(lowerTitlePart)) {
                 result.add(book);
             }
-        }
+        });
         return result;
     }
 
@@ -136,13 +242,7 @@ public class LibraryManager {
      * @return список доступных книг
      */
     public List<Book> getAvailableBooks() {
-        List<Book> result = new ArrayList<>();
-        for (Book book : books.values()) {
-            if(book.isAvailable()) {
-                result.add(book);
-            }
-        }
-        return result;
+        return resolve(availableBooks);
     }
 
     /**
@@ -187,6 +287,7 @@ public class LibraryManager {
             return false;
         }
         readers.put(reader.getId(), reader);
+        readerDirectory.add(reader);
         return true;
     }
 
@@ -203,16 +304,24 @@ public class LibraryManager {
     }
 
     /**
-     * Удаляет читателя
+     * Удаляет читателя. Его брони снимаются, отложенные для него экземпляры переходят
+     * следующим читателям в очереди
      * @param readerId ID читателя
      * @return true если читатель удален, false если читатель не найден
      */
     public boolean removeReader(String readerId) {
-        if(readers.containsKey(readerId)) {
-            readers.remove(readerId);
-            return true;
+        Reader removed = readers.remove(readerId);
+        if(removed == null) {
+            return false;
         }
-        return false;
+        readerDirectory.remove(removed);
+        for (String isbn : holds.removeReader(readerId)) {
+            Book book = books.get(isbn);
+            if(book != null) {
+                handOverCopy(book);
+            }
+        }
+        return true;
     }
 
     /**
@@ -223,20 +332,69 @@ public class LibraryManager {
         return new ArrayList<>(readers.values());
     }
 
+    /**
+     * Ищет читателей по email без учета регистра
+     * @param email email
+     * @return список найденных читателей
+     */
+    public List<Reader> findReadersByEmail(String email) {
+        return readerDirectory.findByEmail(email);
+    }
+
+    /**
+     * Ищет читателей, у которых имя или фамилия начинается с заданной строки
+     * @param prefix начало имени
+     * @return список найденных читателей
+     */
+    public List<Reader> findReadersByNamePrefix(String prefix) {
+        return readerDirectory.findByNamePrefix(prefix, null);
+    }
+
+    /**
+     * Ищет читателей заданной категории, у которых имя или фамилия начинается с заданной строки
+     * @param prefix начало имени
+     * @param category категория читателя
+     * @return список найденных читателей
+     */
+    public List<Reader> findReadersByNamePrefix(String prefix, Reader.ReaderCategory category) {
+        return readerDirectory.findByNamePrefix(prefix, category);
+    }
+
+    /**
+     * Получает читателей заданной категории
+     * @param category категория читателя
+     * @return список читателей
+     */
+    public List<Reader> getReadersByCategory(Reader.ReaderCategory category) {
+        return readerDirectory.findByCategory(category);
+    }
+
     // ============ Методы для выдачи и возврата книг ============
 
     /**
-     * Выдает книгу читателю
+     * Выдает читателю один свободный экземпляр книги
      * @param isbn ISBN книги
      * @param readerId ID читателя
      * @param borrowDays количество дней, на которое выдается книга
-     * @return true если книга выдана, false если книга недоступна или не найдена
+     * @return true если книга выдана, false если свободных экземпляров нет или книга не найдена
      */
     public boolean borrowBook(String isbn, String readerId, int borrowDays) {
-        if(books.containsKey(isbn) && readers.containsKey(readerId) && books.get(isbn).isAvailable()) {
+        if(!readers.containsKey(readerId)) {
+            return false;
+        }
+        Book book = books.get(isbn);
+        // Читатель с отложенной бронью забирает уже зарезервированный для него экземпляр
+        if(book != null && (holds.takeReady(isbn, readerId) || book.reserveCopy())) {
             LocalDate dueDate = LocalDate.now().plusDays(borrowDays);
-            borrowingsHistory.add(new Borrowing(isbn, readerId, LocalDate.now(), dueDate));
-            books.get(isbn).setAvailable(false);
+            Borrowing borrowing = new Borrowing(isbn, readerId, LocalDate.now(), dueDate);
+            borrowingsHistory.add(borrowing);
+            activeBorrowings.computeIfAbsent(isbn, key -> new ArrayList<>(1)).add(borrowing);
+            borrowCounts.merge(isbn, 1, Integer::sum);
+            borrowingTimeSeries.recordBorrowing(borrowing.getBorrowDate(), book.getGenre(), categoryOf(readerId));
+            books.update(book);
+            updateAvailability(book);
+            coBorrowingIndex.recordBorrowing(readerId, isbn);
+            publish(new LibraryEvent.Borrowed(isbn, readerId, dueDate));
             return true;
         }
         return false;
@@ -249,14 +407,19 @@ public class LibraryManager {
      * @return true если книга возвращена, false если запись о выдаче не найдена
      */
     public boolean returnBook(String isbn, String readerId) {
-        for (Borrowing borrowing : borrowingsHistory) {
-            if(borrowing.getIsbn().equals(isbn) && borrowing.getReaderId().equals(readerId)) {
-                borrowing.returnBook(LocalDate.now());
-                books.get(isbn).setAvailable(true);
-                return true;
-            }
+        Borrowing borrowing = removeActiveBorrowing(isbn, readerId);
+        if(borrowing == null) {
+            return false;
         }
-        return false;
+        borrowing.returnBook(LocalDate.now());
+        Book book = books.get(isbn);
+        borrowingTimeSeries.recordReturn(borrowing.getReturnDate(), book == null ? null : book.getGenre(),
+                categoryOf(readerId));
+        if(book != null) {
+            handOverCopy(book);
+        }
+        publish(new LibraryEvent.Returned(isbn, readerId, borrowing.getReturnDate()));
+        return true;
     }
 
     /**
@@ -267,6 +430,43 @@ public class LibraryManager {
         return new ArrayList<>(borrowingsHistory);
     }
 
+    /**
+     * Передает всю историю выдач в обработчик без копирования в список
+     * @param action обработчик
+     */
+    public void forEachBorrowing(Consumer<Borrowing> action) {
+        borrowingsHistory.forEach(action);
+    }
+
+    /**
+     * @return история выдач без копирования (только для чтения)
+     */
+    List<Borrowing> borrowingsView() {
+        return Collections.unmodifiableList(borrowingsHistory);
+    }
+
+    /**
+     * Восстанавливает запись о выдаче из снимка без проверок доступности
+     * @param borrowing запись о выдаче
+     */
+    void restoreBorrowing(Borrowing borrowing) {
+        borrowingsHistory.add(borrowing);
+        if(!borrowing.isReturned()) {
+            activeBorrowings.computeIfAbsent(borrowing.getIsbn(), key -> new ArrayList<>(1)).add(borrowing);
+        }
+        Book book = books.get(borrowing.getIsbn());
+        if(book != null) {
+            borrowCounts.merge(borrowing.getIsbn(), 1, Integer::sum);
+        }
+        Book.Genre genre = book == null ? null : book.getGenre();
+        Reader.ReaderCategory category = categoryOf(borrowing.getReaderId());
+        borrowingTimeSeries.recordBorrowing(borrowing.getBorrowDate(), genre, category);
+        if(borrowing.isReturned()) {
+            borrowingTimeSeries.recordReturn(borrowing.getReturnDate(), genre, category);
+        }
+        coBorrowingIndex.recordBorrowing(borrowing.getReaderId(), borrowing.getIsbn());
+    }
+
     /**
      * Получает список просроченных выдач
      * @return список просроченных выдач
@@ -319,13 +519,112 @@ public class LibraryManager {
      * @return true если срок продлен, false если запись о выдаче не найдена
      */
     public boolean extendBorrowingPeriod(String isbn, String readerId, int additionalDays) {
-        for (Borrowing borrowing : borrowingsHistory) {
-            if(borrowing.getIsbn().equals(isbn) && borrowing.getReaderId().equals(readerId)) {
-                borrowing.setDueDate(borrowing.getDueDate().plusDays(additionalDays));
-                return true;
+        Borrowing borrowing = findActiveBorrowing(isbn, readerId);
+        if(borrowing == null) {
+            return false;
+        }
+        borrowing.setDueDate(borrowing.getDueDate().plusDays(additionalDays));
+        publish(new LibraryEvent.Extended(isbn, readerId, borrowing.getDueDate()));
+        return true;
+    }
+
+    // ============ Методы для бронирования ============
+
+    /**
+     * Бронирует книгу. Если свободный экземпляр есть, он сразу откладывается для читателя,
+     * иначе читатель встает в очередь и получит событие {@link LibraryEvent.HoldReady},
+     * когда экземпляр вернут
+     * @param isbn ISBN книги
+     * @param readerId ID читателя
+     * @return true если бронь оформлена, false если книга или читатель не найдены
+     * или у читателя уже есть бронь этой книги
+     */
+    public boolean placeHold(String isbn, String readerId) {
+        Book book = books.get(isbn);
+        if(book == null || !readers.containsKey(readerId)) {
+            return false;
+        }
+        if(holds.getReadyHold(isbn, readerId) != null) {
+            return false;
+        }
+        if(!holds.hasWaiting(isbn) && book.reserveCopy()) {
+            books.update(book);
+            updateAvailability(book);
+            HoldQueue.Hold hold = holds.makeReady(isbn, readerId, LocalDate.now());
+            publish(new LibraryEvent.HoldReady(isbn, readerId, hold.expiryDate()));
+            return true;
+        }
+        return holds.enqueue(isbn, readerId);
+    }
+
+    /**
+     * Отменяет бронь. Отложенный для читателя экземпляр переходит следующему в очереди
+     * @param isbn ISBN книги
+     * @param readerId ID читателя
+     * @return true если бронь отменена, false если брони не было
+     */
+    public boolean cancelHold(String isbn, String readerId) {
+        if(holds.removeWaiting(isbn, readerId)) {
+            return true;
+        }
+        if(!holds.takeReady(isbn, readerId)) {
+            return false;
+        }
+        Book book = books.get(isbn);
+        if(book != null) {
+            handOverCopy(book);
+        }
+        return true;
+    }
+
+    /**
+     * Снимает отложенные брони, которые не забрали в срок, и передает экземпляры
+     * следующим читателям в очереди
+     * @param today текущая дата
+     * @return количество снятых броней
+     */
+    public int expireHolds(LocalDate today) {
+        List<HoldQueue.Hold> expired = holds.expire(today);
+        for (HoldQueue.Hold hold : expired) {
+            publish(new LibraryEvent.HoldExpired(hold.isbn(), hold.readerId(), hold.expiryDate()));
+            Book book = books.get(hold.isbn());
+            if(book != null) {
+                handOverCopy(book);
             }
         }
-        return false;
+        return expired.size();
+    }
+
+    /**
+     * Изменяет срок, в течение которого отложенный экземпляр ждет читателя
+     * @param pickupDays количество дней
+     */
+    public void setHoldPickupDays(int pickupDays) {
+        holds.setPickupDays(pickupDays);
+    }
+
+    /**
+     * @param isbn ISBN книги
+     * @return количество читателей в очереди на книгу
+     */
+    public int getHoldQueueLength(String isbn) {
+        return holds.getWaitingCount(isbn);
+    }
+
+    /**
+     * @param isbn ISBN книги
+     * @param readerId ID читателя
+     * @return true если для читателя отложен экземпляр книги
+     */
+    public boolean hasReadyHold(String isbn, String readerId) {
+        return holds.getReadyHold(isbn, readerId) != null;
+    }
+
+    /**
+     * @return очереди бронирования (для сохранения и восстановления снимка)
+     */
+    HoldQueue getHoldQueue() {
+        return holds;
     }
 
     // ============ Методы для статистики и отчетов ============
@@ -336,35 +635,92 @@ public class LibraryManager {
      */
     public Map<Book.Genre, Integer> getGenreStatistics() {
         HashMap<Book.Genre, Integer> result = new HashMap<>();
-        booksByGenres.forEach((genre, books) -> result.put(genre, books.size()));
+        booksByGenres.forEach((genre, isbns) -> result.put(genre, isbns.size()));
         return result;
     }
 
+    /**
+     * Возвращает счетчики выдач и возвратов по дням, жанрам и категориям читателей
+     * @return временной ряд выдач
+     */
+    public BorrowingTimeSeries getBorrowingTimeSeries() {
+        return borrowingTimeSeries;
+    }
+
     /**
      * Возвращает наиболее популярные книги (по количеству выдач)
      * @param limit максимальное количество книг в результате
      * @return список пар "книга -> количество выдач"
      */
     public Map<Book, Integer> getMostPopularBooks(int limit) {
-        HashMap<Book, Integer> result = new HashMap<>();
-        for (Borrowing borrowing : borrowingsHistory) {
-            Book book = books.get(borrowing.getIsbn());
-            if(result.containsKey(book)) {
-                result.put(book, result.get(book) + 1);
-            }
-            else{
-                result.put(book, 1);
+        LinkedHashMap<Book, Integer> sortedMap = new LinkedHashMap<>();
+        forEachMostPopularBook(limit, sortedMap::put);
+        return sortedMap;
+    }
+
+    /**
+     * Передает наиболее популярные книги в обработчик, от самых популярных к менее популярным.
+     * Книги с равным количеством выдач идут в порядке ISBN. Отбор идет по счетчикам выдач
+     * через кучу из limit элементов, поэтому дополнительная память - O(limit)
+     * @param limit максимальное количество книг
+     * @param action обработчик, получает книгу и количество ее выдач
+     */
+    public void forEachMostPopularBook(int limit, ObjIntConsumer<Book> action) {
+        if(limit <= 0) {
+            return;
+        }
+        // На вершине кучи - наименее популярная из отобранных книг
+        Comparator<Map.Entry<String, Integer>> byPopularity = Map.Entry.<String, Integer>comparingByValue()
+                .thenComparing(Map.Entry.<String, Integer>comparingByKey().reversed());
+        PriorityQueue<Map.Entry<String, Integer>> top = new PriorityQueue<>(Math.min(limit, 64), byPopularity);
+        for (Map.Entry<String, Integer> entry : borrowCounts.entrySet()) {
+            if(top.size() < limit) {
+                top.add(entry);
+            } else if(byPopularity.compare(entry, top.peek()) > 0) {
+                top.poll();
+                top.add(entry);
             }
         }
 
-        List<Map.Entry<Book, Integer>> entryList = new ArrayList<>(result.entrySet());
-        entryList.sort((o1, o2) -> o2.getValue().compareTo(o1.getValue()));
+        // Куча отдает книги от наименее популярной; загружаем из хранилища только попавшие в результат
+        List<Map.Entry<String, Integer>> sorted = new ArrayList<>(top.size());
+        while (!top.isEmpty()) {
+            sorted.add(top.poll());
+        }
+        for (int i = sorted.size() - 1; i >= 0; i--) {
+            action.accept(books.get(sorted.get(i).getKey()), sorted.get(i).getValue());
+        }
+    }
 
-        LinkedHashMap<Book, Integer> sortedMap = new LinkedHashMap<>();
-        for (int i = 0; i < Math.min(entryList.size(), limit); i++) {
-            sortedMap.put(entryList.get(i).getKey(), entryList.get(i).getValue());
+    /**
+     * Возвращает книги, которые чаще всего брали читатели заданной книги
+     * @param isbn ISBN книги
+     * @param limit максимальное количество книг в результате
+     * @return список книг от самых частых к самым редким
+     * @throws IllegalArgumentException если limit отрицательный
+     */
+    public List<Book> getAlsoBorrowedBooks(String isbn, int limit) {
+        List<Book> result = new ArrayList<>();
+        for (String other : coBorrowingIndex.getAlsoBorrowed(isbn, limit)) {
+            Book book = books.get(other);
+            if(book != null) {
+                result.add(book);
+            }
         }
-        return sortedMap;
+        return result;
+    }
+
+    /**
+     * Пересобирает рекомендации по истории выдач книг, которые еще есть в библиотеке
+     */
+    public void rebuildRecommendations() {
+        List<Borrowing> history = new ArrayList<>(borrowingsHistory.size());
+        for (Borrowing borrowing : borrowingsHistory) {
+            if(books.contains(borrowing.getIsbn())) {
+                history.add(borrowing);
+            }
+        }
+        coBorrowingIndex.rebuild(history);
     }
 
     /**
@@ -419,8 +775,9 @@ public class LibraryManager {
     public Iterator<Book> getBooksByGenreAndYearIterator(Book.Genre genre, int year) {
         List<Book> filtered = new ArrayList<>();
 
-        for (Book book : books.values()) {
-            if (book.getGenre() == genre && book.getPublicationYear() == year) {
+        Set<String> isbns = booksByGenres.getOrDefault(genre, Collections.emptySet());
+        for (Book book : resolve(isbns)) {
+            if (book.getPublicationYear() == year) {
                 filtered.add(book);
             }
         }
@@ -453,11 +810,11 @@ public class LibraryManager {
     public Iterator<Book> getBooksWithMultipleAuthorsIterator(int minAuthorsCount) {
         List<Book> filtered = new ArrayList<>();
 
-        for (Book book : books.values()) {
+        books.forEach(book -> {
             if (book.getAuthors().size() >= minAuthorsCount) {
                 filtered.add(book);
             }
-        }
+        });
 
         return new Iterator<>() {
             private final Iterator<Book> internalIterator = filtered.iterator();
@@ -511,4 +868,86 @@ public class LibraryManager {
             }
         };
     }
-}
\ No newline at end of file
+
+    private Borrowing findActiveBorrowing(String isbn, String readerId) {
+        List<Borrowing> active = activeBorrowings.get(isbn);
+        if(active != null) {
+            for (Borrowing borrowing : active) {
+                if(borrowing.getReaderId().equals(readerId)) {
+                    return borrowing;
+                }
+            }
+        }
+        return null;
+    }
+
+    private Borrowing removeActiveBorrowing(String isbn, String readerId) {
+        List<Borrowing> active = activeBorrowings.get(isbn);
+        if(active == null) {
+            return null;
+        }
+        for (Iterator<Borrowing> iterator = active.iterator(); iterator.hasNext(); ) {
+            Borrowing borrowing = iterator.next();
+            if(borrowing.getReaderId().equals(readerId)) {
+                iterator.remove();
+                if(active.isEmpty()) {
+                    activeBorrowings.remove(isbn);
+                }
+                return borrowing;
+            }
+        }
+        return null;
+    }
+
+    // Освободившийся экземпляр откладывается для первого читателя в очереди, а если очереди нет,
+    // возвращается в общий доступ
+    private void handOverCopy(Book book) {
+        HoldQueue.Hold next = holds.promote(book.getIsbn(), LocalDate.now());
+        if(next != null) {
+            publish(new LibraryEvent.HoldReady(next.isbn(), next.readerId(), next.expiryDate()));
+            return;
+        }
+        book.releaseCopy();
+        books.update(book);
+        updateAvailability(book);
+    }
+
+    private void index(Book book) {
+        booksByGenres.computeIfAbsent(book.getGenre(), genre -> new HashSet<>()).add(book.getIsbn());
+        for (String author : book.getAuthors()) {
+            booksByAuthors.computeIfAbsent(author, key -> new ArrayList<>()).add(book.getIsbn());
+        }
+        updateAvailability(book);
+        book.setAvailabilityListener(this::updateAvailability);
+    }
+
+    // Хранилище может возвращать копии книг без слушателя (например, файловое), поэтому выдача
+    // и возврат сохраняют книгу через books.update и обновляют индекс явно. Слушатель отслеживает
+    // только прямые изменения доступности книг, которые хранилище держит в памяти
+    private void updateAvailability(Book book) {
+        if(book.isAvailable()) {
+            availableBooks.add(book.getIsbn());
+        } else {
+            availableBooks.remove(book.getIsbn());
+        }
+    }
+
+    private Reader.ReaderCategory categoryOf(String readerId) {
+        Reader reader = readers.get(readerId);
+        return reader == null ? null : reader.getCategory();
+    }
+
+    private void publish(LibraryEvent event) {
+        if(eventBus != null) {
+            eventBus.publish(event);
+        }
+    }
+
+    private List<Book> resolve(Collection<String> isbns) {
+        List<Book> result = new ArrayList<>(isbns.size());
+        for (String isbn : isbns) {
+            result.add(books.get(isbn));
+        }
+        return result;
+    }
+}
@@ -0,0 +1,360 @@
+package ru.mentee.power.collections.library;
+
+import ru.mentee.power.collections.library.store.InMemoryBookStore;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Бинарный снимок каталога библиотеки (книги, читатели и история выдач).
+ *
+ * Формат файла (все числа big-endian):
+ * <pre>
+ * int magic, int version
+ * int stringCount, затем stringCount строк: int byteLength + UTF-8 байты
+ * int bookCount, затем книги:
+ *     int isbn, int title, byte genre, int year, int pages, int totalCopies, int availableCopies,
+ *     int authorCount, int[] authors
+ * int readerCount, затем читатели: int id, int name, int email, byte category
+ * int borrowingCount, затем выдачи: int isbn, int readerId, int borrowDay, int dueDay, int returnDay
+ * int holdCount, затем отложенные брони: int isbn, int readerId, int expiryDay
+ * int queueCount, затем очереди бронирования: int isbn, int readerCount, int[] readerIds
+ * </pre>
+ * Все строки хранятся один раз в таблице строк, записи ссылаются на них по индексу
+ * (-1 означает null). Даты хранятся как epoch day, отсутствующая дата - {@link #NO_DATE}.
+ */
+public class LibrarySnapshot {
+    static final int MAGIC = 0x4C42534E; // "LBSN"
+    static final int VERSION = 1;
+    static final int NO_DATE = Integer.MIN_VALUE;
+
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    // Минимальные размеры записей в байтах: по ним проверяются прочитанные количества
+    private static final int MIN_STRING_SIZE = 4;
+    private static final int MIN_BOOK_SIZE = 29;
+    private static final int READER_SIZE = 13;
+    private static final int BORROWING_SIZE = 20;
+    private static final int HOLD_SIZE = 12;
+    private static final int MIN_QUEUE_SIZE = 8;
+    private static final int REFERENCE_SIZE = 4;
+
+    private LibrarySnapshot() {
+    }
+
+    /**
+     * Записывает снимок библиотеки в файл (файл перезаписывается)
+     * @param library библиотека
+     * @param file путь к файлу снимка
+     * @throws IOException при ошибке записи
+     */
+    public static void write(LibraryManager library, Path file) throws IOException {
+        List<Book> books = library.getAllBooks();
+        List<Reader> readers = library.getAllReaders();
+        List<Borrowing> borrowings = library.getAllBorrowings();
+        List<HoldQueue.Hold> readyHolds = library.getHoldQueue().getReadyHolds();
+        Map<String, List<String>> holdQueues = library.getHoldQueue().getWaitingQueues();
+
+        StringTable strings = new StringTable();
+        for (Book book : books) {
+            strings.add(book.getIsbn());
+            strings.add(book.getTitle());
+            book.getAuthors().forEach(strings::add);
+        }
+        for (Reader reader : readers) {
+            strings.add(reader.getId());
+            strings.add(reader.getName());
+            strings.add(reader.getEmail());
+        }
+        for (Borrowing borrowing : borrowings) {
+            strings.add(borrowing.getIsbn());
+            strings.add(borrowing.getReaderId());
+        }
+        for (HoldQueue.Hold hold : readyHolds) {
+            strings.add(hold.isbn());
+            strings.add(hold.readerId());
+        }
+        holdQueues.forEach((isbn, readerIds) -> {
+            strings.add(isbn);
+            readerIds.forEach(strings::add);
+        });
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            ChannelOutput out = new ChannelOutput(channel);
+            out.putInt(MAGIC);
+            out.putInt(VERSION);
+
+            out.putInt(strings.values.size());
+            for (String value : strings.values) {
+                out.putBytes(value.getBytes(StandardCharsets.UTF_8));
+            }
+
+            out.putInt(books.size());
+            for (Book book : books) {
+                out.putInt(strings.indexOf(book.getIsbn()));
+                out.putInt(strings.indexOf(book.getTitle()));
+                out.putByte(book.getGenre() == null ? -1 : book.getGenre().ordinal());
+                out.putInt(book.getPublicationYear());
+                out.putInt(book.getPageCount());
+                out.putInt(book.getTotalCopies());
+                out.putInt(book.getAvailableCopies());
+                out.putInt(book.getAuthors().size());
+                for (String author : book.getAuthors()) {
+                    out.putInt(strings.indexOf(author));
+                }
+            }
+
+            out.putInt(readers.size());
+            for (Reader reader : readers) {
+                out.putInt(strings.indexOf(reader.getId()));
+                out.putInt(strings.indexOf(reader.getName()));
+                out.putInt(strings.indexOf(reader.getEmail()));
+                out.putByte(reader.getCategory() == null ? -1 : reader.getCategory().ordinal());
+            }
+
+            out.putInt(borrowings.size());
+            for (Borrowing borrowing : borrowings) {
+                out.putInt(strings.indexOf(borrowing.getIsbn()));
+                out.putInt(strings.indexOf(borrowing.getReaderId()));
+                out.putInt(toEpochDay(borrowing.getBorrowDate()));
+                out.putInt(toEpochDay(borrowing.getDueDate()));
+                out.putInt(toEpochDay(borrowing.getReturnDate()));
+            }
+
+            out.putInt(readyHolds.size());
+            for (HoldQueue.Hold hold : readyHolds) {
+                out.putInt(strings.indexOf(hold.isbn()));
+                out.putInt(strings.indexOf(hold.readerId()));
+                out.putInt(toEpochDay(hold.expiryDate()));
+            }
+
+            out.putInt(holdQueues.size());
+            for (Map.Entry<String, List<String>> queue : holdQueues.entrySet()) {
+                out.putInt(strings.indexOf(queue.getKey()));
+                out.putInt(queue.getValue().size());
+                for (String readerId : queue.getValue()) {
+                    out.putInt(strings.indexOf(readerId));
+                }
+            }
+            out.flush();
+        }
+    }
+
+    /**
+     * Загружает библиотеку из файла снимка, отображая его в память
+     * @param file путь к файлу снимка
+     * @return новая библиотека с восстановленными индексами
+     * @throws IOException при ошибке чтения или неверном формате файла
+     */
+    public static LibraryManager read(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IOException("Снимок больше 2 ГБ не поддерживается: " + file);
+            }
+            MappedByteBuffer in = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            return read(in);
+        } catch (BufferUnderflowException | IndexOutOfBoundsException | IllegalArgumentException e) {
+            throw new IOException("Снимок библиотеки повреждён: " + file, e);
+        }
+    }
+
+    private static LibraryManager read(ByteBuffer in) throws IOException {
+        if (in.remaining() < 8 || in.getInt() != MAGIC) {
+            throw new IOException("Файл не является снимком библиотеки");
+        }
+        int version = in.getInt();
+        if (version != VERSION) {
+            throw new IOException("Неподдерживаемая версия снимка: " + version);
+        }
+
+        String[] strings = new String[readCount(in, MIN_STRING_SIZE)];
+        byte[] scratch = new byte[256];
+        for (int i = 0; i < strings.length; i++) {
+            int length = readCount(in, 1);
+            if (scratch.length < length) {
+                scratch = new byte[Math.max(length, scratch.length * 2)];
+            }
+            in.get(scratch, 0, length);
+            strings[i] = new String(scratch, 0, length, StandardCharsets.UTF_8);
+        }
+
+        Book.Genre[] genres = Book.Genre.values();
+        Reader.ReaderCategory[] categories = Reader.ReaderCategory.values();
+
+        // Размеры секций читателей и выдач станут известны только после чтения книг,
+        // поэтому заранее рассчитываем коллекции только под книги
+        int bookCount = readCount(in, MIN_BOOK_SIZE);
+        LibraryManager library = new LibraryManager(new InMemoryBookStore(bookCount), 16, 16);
+        for (int i = 0; i < bookCount; i++) {
+            String isbn = requiredString(strings, in.getInt());
+            String title = string(strings, in.getInt());
+            byte genre = in.get();
+            Book book = new Book(isbn, title, in.getInt(), genres[genre]);
+            book.setPageCount(in.getInt());
+            book.setTotalCopies(in.getInt());
+            book.setAvailableCopies(in.getInt());
+            int authorCount = readCount(in, REFERENCE_SIZE);
+            for (int j = 0; j < authorCount; j++) {
+                book.addAuthor(string(strings, in.getInt()));
+            }
+            library.addBook(book);
+        }
+
+        int readerCount = readCount(in, READER_SIZE);
+        for (int i = 0; i < readerCount; i++) {
+            String id = string(strings, in.getInt());
+            String name = string(strings, in.getInt());
+            String email = string(strings, in.getInt());
+            byte category = in.get();
+            library.addReader(new Reader(id, name, email, category == -1 ? null : categories[category]));
+        }
+
+        int borrowingCount = readCount(in, BORROWING_SIZE);
+        for (int i = 0; i < borrowingCount; i++) {
+            String isbn = requiredString(strings, in.getInt());
+            String readerId = requiredString(strings, in.getInt());
+            Borrowing borrowing = new Borrowing(isbn, readerId, requiredDate(in.getInt()), requiredDate(in.getInt()));
+            borrowing.setReturnDate(fromEpochDay(in.getInt()));
+            library.restoreBorrowing(borrowing);
+        }
+
+        HoldQueue holds = library.getHoldQueue();
+        LocalDate today = LocalDate.now();
+        int holdCount = readCount(in, HOLD_SIZE);
+        for (int i = 0; i < holdCount; i++) {
+            String isbn = requiredString(strings, in.getInt());
+            String readerId = requiredString(strings, in.getInt());
+            holds.restoreReady(new HoldQueue.Hold(isbn, readerId, requiredDate(in.getInt())), today);
+        }
+        int queueCount = readCount(in, MIN_QUEUE_SIZE);
+        for (int i = 0; i < queueCount; i++) {
+            String isbn = requiredString(strings, in.getInt());
+            int readerIdCount = readCount(in, REFERENCE_SIZE);
+            for (int j = 0; j < readerIdCount; j++) {
+                holds.enqueue(isbn, requiredString(strings, in.getInt()));
+            }
+        }
+        return library;
+    }
+
+    /**
+     * Читает количество записей (или длину строки) и проверяет, что столько записей
+     * минимального размера помещается в остаток файла
+     * @throws IOException если количество отрицательное или больше возможного
+     */
+    private static int readCount(ByteBuffer in, int minItemSize) throws IOException {
+        int count = in.getInt();
+        if (count < 0 || (long) count * minItemSize > in.remaining()) {
+            throw new IOException("Снимок библиотеки повреждён: некорректное количество " + count);
+        }
+        return count;
+    }
+
+    private static String string(String[] strings, int index) {
+        return index == -1 ? null : strings[index];
+    }
+
+    private static String requiredString(String[] strings, int index) throws IOException {
+        String value = string(strings, index);
+        if (value == null) {
+            throw new IOException("Снимок библиотеки повреждён: отсутствует обязательная строка");
+        }
+        return value;
+    }
+
+    private static LocalDate requiredDate(int day) throws IOException {
+        if (day == NO_DATE) {
+            throw new IOException("Снимок библиотеки повреждён: отсутствует обязательная дата");
+        }
+        return LocalDate.ofEpochDay(day);
+    }
+
+    private static int toEpochDay(LocalDate date) {
+        return date == null ? NO_DATE : Math.toIntExact(date.toEpochDay());
+    }
+
+    private static LocalDate fromEpochDay(int day) {
+        return day == NO_DATE ? null : LocalDate.ofEpochDay(day);
+    }
+
+    /**
+     * Таблица уникальных строк в порядке первого появления
+     */
+    private static class StringTable {
+        private final Map<String, Integer> indexes = new HashMap<>();
+        private final List<String> values = new ArrayList<>();
+
+        void add(String value) {
+            if (value != null && !indexes.containsKey(value)) {
+                indexes.put(value, values.size());
+                values.add(value);
+            }
+        }
+
+        int indexOf(String value) {
+            return value == null ? -1 : indexes.get(value);
+        }
+    }
+
+    /**
+     * Буферизованная запись примитивов в канал через один переиспользуемый буфер
+     */
+    private static class ChannelOutput {
+        private final FileChannel channel;
+        private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+
+        ChannelOutput(FileChannel channel) {
+            this.channel = channel;
+        }
+
+        void putInt(int value) throws IOException {
+            ensure(Integer.BYTES);
+            buffer.putInt(value);
+        }
+
+        void putByte(int value) throws IOException {
+            ensure(Byte.BYTES);
+            buffer.put((byte) value);
+        }
+
+        void putBytes(byte[] bytes) throws IOException {
+            putInt(bytes.length);
+            if (bytes.length > buffer.capacity()) {
+                flush();
+                ByteBuffer wrapped = ByteBuffer.wrap(bytes);
+                while (wrapped.hasRemaining()) {
+                    channel.write(wrapped);
+                }
+                return;
+            }
+            ensure(bytes.length);
+            buffer.put(bytes);
+        }
+
+        void flush() throws IOException {
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            buffer.clear();
+        }
+
+        private void ensure(int bytes) throws IOException {
+            if (buffer.remaining() < bytes) {
+                flush();
+            }
+        }
+    }
+}
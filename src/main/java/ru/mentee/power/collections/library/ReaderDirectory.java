@@ -0,0 +1,162 @@
+package ru.mentee.power.collections.library;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.regex.Pattern;
+
+/**
+ * Справочник читателей с поиском по email, началу имени и категории.
+ *
+ * Email и имена нормализуются: обрезаются пробелы, регистр не учитывается, "ё" приравнивается к "е".
+ * Имя индексируется целиком и по каждому слову, поэтому "Петр" находит и "Петров Иван",
+ * и "Иван Петров". Кроме общего индекса имен, для каждой категории хранится свой, поэтому
+ * поиск по началу имени внутри категории не просматривает читателей других категорий.
+ * Индексы обновляются при добавлении и удалении читателя; если имя или email читателя
+ * изменились после добавления, читателя нужно удалить и добавить заново.
+ */
+public class ReaderDirectory {
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private final Map<String, Set<Reader>> readersByEmail;
+    private final NavigableMap<String, Set<Reader>> readersByName = new TreeMap<>();
+    private final Map<Reader.ReaderCategory, Set<Reader>> readersByCategory =
+            new EnumMap<>(Reader.ReaderCategory.class);
+    private final Map<Reader.ReaderCategory, NavigableMap<String, Set<Reader>>> readersByCategoryAndName =
+            new EnumMap<>(Reader.ReaderCategory.class);
+
+    public ReaderDirectory() {
+        this(16);
+    }
+
+    /**
+     * @param expectedReaders ожидаемое количество читателей
+     */
+    public ReaderDirectory(int expectedReaders) {
+        readersByEmail = HashMap.newHashMap(expectedReaders);
+    }
+
+    /**
+     * Добавляет читателя во все индексы
+     * @param reader читатель
+     */
+    public void add(Reader reader) {
+        String email = normalize(reader.getEmail());
+        if (email != null && !email.isEmpty()) {
+            readersByEmail.computeIfAbsent(email, key -> new LinkedHashSet<>(2)).add(reader);
+        }
+        NavigableMap<String, Set<Reader>> categoryNames = reader.getCategory() == null
+                ? null
+                : readersByCategoryAndName.computeIfAbsent(reader.getCategory(), category -> new TreeMap<>());
+        for (String key : nameKeys(reader.getName())) {
+            readersByName.computeIfAbsent(key, k -> new LinkedHashSet<>(2)).add(reader);
+            if (categoryNames != null) {
+                categoryNames.computeIfAbsent(key, k -> new LinkedHashSet<>(2)).add(reader);
+            }
+        }
+        if (reader.getCategory() != null) {
+            readersByCategory.computeIfAbsent(reader.getCategory(), category -> new LinkedHashSet<>()).add(reader);
+        }
+    }
+
+    /**
+     * Удаляет читателя из всех индексов
+     * @param reader читатель
+     */
+    public void remove(Reader reader) {
+        String email = normalize(reader.getEmail());
+        if (email != null) {
+            removeFrom(readersByEmail, email, reader);
+        }
+        NavigableMap<String, Set<Reader>> categoryNames = readersByCategoryAndName.get(reader.getCategory());
+        for (String key : nameKeys(reader.getName())) {
+            removeFrom(readersByName, key, reader);
+            if (categoryNames != null) {
+                removeFrom(categoryNames, key, reader);
+            }
+        }
+        Set<Reader> bucket = readersByCategory.get(reader.getCategory());
+        if (bucket != null) {
+            bucket.remove(reader);
+        }
+    }
+
+    /**
+     * Ищет читателей по email без учета регистра и пробелов по краям
+     * @param email email
+     * @return найденные читатели
+     */
+    public List<Reader> findByEmail(String email) {
+        String key = normalize(email);
+        Set<Reader> found = key == null ? null : readersByEmail.get(key);
+        return found == null ? Collections.emptyList() : new ArrayList<>(found);
+    }
+
+    /**
+     * Ищет читателей, у которых имя или одно из слов имени начинается с заданной строки
+     * @param prefix начало имени
+     * @param category категория или null для любой категории
+     * @return найденные читатели в алфавитном порядке ключей, без повторов
+     */
+    public List<Reader> findByNamePrefix(String prefix, Reader.ReaderCategory category) {
+        String from = normalize(prefix);
+        if (from == null || from.isEmpty()) {
+            return Collections.emptyList();
+        }
+        NavigableMap<String, Set<Reader>> names = category == null
+                ? readersByName
+                : readersByCategoryAndName.get(category);
+        if (names == null) {
+            return Collections.emptyList();
+        }
+        Set<Reader> result = new LinkedHashSet<>();
+        for (Set<Reader> readers : names.subMap(from, true, from + Character.MAX_VALUE, false).values()) {
+            result.addAll(readers);
+        }
+        return new ArrayList<>(result);
+    }
+
+    /**
+     * @param category категория
+     * @return читатели категории в порядке добавления
+     */
+    public List<Reader> findByCategory(Reader.ReaderCategory category) {
+        Set<Reader> bucket = readersByCategory.get(category);
+        return bucket == null ? Collections.emptyList() : new ArrayList<>(bucket);
+    }
+
+    private static void removeFrom(Map<String, Set<Reader>> index, String key, Reader reader) {
+        Set<Reader> readers = index.get(key);
+        if (readers != null && readers.remove(reader) && readers.isEmpty()) {
+            index.remove(key);
+        }
+    }
+
+    private static Set<String> nameKeys(String name) {
+        String normalized = normalize(name);
+        if (normalized == null || normalized.isEmpty()) {
+            return Collections.emptySet();
+        }
+        Set<String> keys = new LinkedHashSet<>();
+        keys.add(normalized);
+        for (String token : normalized.split(" ")) {
+            keys.add(token);
+        }
+        return keys;
+    }
+
+    private static String normalize(String value) {
+        if (value == null) {
+            return null;
+        }
+        return WHITESPACE.matcher(value.strip()).replaceAll(" ").toLowerCase(Locale.ROOT).replace('ё', 'е');
+    }
+}
@@ -0,0 +1,56 @@
+package ru.mentee.power.collections.library.event;
+
+import java.time.LocalDate;
+
+/**
+ * Событие библиотеки, публикуемое через {@link LibraryEventBus}
+ */
+public sealed interface LibraryEvent {
+
+    /**
+     * @return ISBN книги, к которой относится событие
+     */
+    String isbn();
+
+    /**
+     * Книга добавлена в библиотеку
+     */
+    record BookAdded(String isbn) implements LibraryEvent {
+    }
+
+    /**
+     * Книга удалена из библиотеки
+     */
+    record BookRemoved(String isbn) implements LibraryEvent {
+    }
+
+    /**
+     * Книга выдана читателю
+     */
+    record Borrowed(String isbn, String readerId, LocalDate dueDate) implements LibraryEvent {
+    }
+
+    /**
+     * Книга возвращена читателем
+     */
+    record Returned(String isbn, String readerId, LocalDate returnDate) implements LibraryEvent {
+    }
+
+    /**
+     * Срок выдачи продлен
+     */
+    record Extended(String isbn, String readerId, LocalDate dueDate) implements LibraryEvent {
+    }
+
+    /**
+     * Для читателя отложен экземпляр забронированной книги
+     */
+    record HoldReady(String isbn, String readerId, LocalDate expiryDate) implements LibraryEvent {
+    }
+
+    /**
+     * Читатель не забрал отложенный экземпляр в срок
+     */
+    record HoldExpired(String isbn, String readerId, LocalDate expiryDate) implements LibraryEvent {
+    }
+}
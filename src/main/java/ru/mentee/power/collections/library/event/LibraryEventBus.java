@@ -0,0 +1,215 @@
+package ru.mentee.power.collections.library.event;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Шина событий библиотеки на кольцевом буфере с одним издателем и несколькими подписчиками.
+ *
+ * Ячейки буфера создаются один раз при создании шины. Издатель никогда не ждет подписчиков:
+ * если подписчик отстал больше чем на размер буфера, старые события для него перезаписываются,
+ * а он продолжает с самого старого доступного события и увеличивает счетчик пропущенных.
+ * Каждый подписчик читает буфер в своем потоке и получает события пачками.
+ *
+ * Метод {@link #publish(LibraryEvent)} не потокобезопасен: одновременно его может вызывать
+ * только один поток (или вызовы должны быть упорядочены внешней блокировкой).
+ */
+public class LibraryEventBus implements AutoCloseable {
+    private static final int DEFAULT_CAPACITY = 1 << 14;
+    private static final int DEFAULT_MAX_BATCH = 256;
+    private static final long IDLE_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(100);
+
+    private final Slot[] ring;
+    private final int mask;
+    private final int maxBatch;
+
+    // Номер последнего опубликованного события (-1, пока событий не было)
+    private volatile long cursor = -1;
+    private long nextSequence;
+
+    private final List<Subscription> subscriptions = new CopyOnWriteArrayList<>();
+
+    public LibraryEventBus() {
+        this(DEFAULT_CAPACITY, DEFAULT_MAX_BATCH);
+    }
+
+    /**
+     * @param capacity размер кольцевого буфера (степень двойки)
+     * @param maxBatch максимальный размер пачки, передаваемой подписчику
+     */
+    public LibraryEventBus(int capacity, int maxBatch) {
+        if (capacity <= 0 || Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("Размер буфера должен быть степенью двойки");
+        }
+        if (maxBatch <= 0) {
+            throw new IllegalArgumentException("Размер пачки должен быть положительным");
+        }
+        ring = new Slot[capacity];
+        for (int i = 0; i < capacity; i++) {
+            ring[i] = new Slot();
+        }
+        mask = capacity - 1;
+        this.maxBatch = maxBatch;
+    }
+
+    /**
+     * Публикует событие. Никогда не блокируется
+     * @param event событие
+     */
+    public void publish(LibraryEvent event) {
+        long sequence = nextSequence++;
+        Slot slot = ring[(int) (sequence & mask)];
+        // Сначала помечаем ячейку как изменяемую, чтобы читатель не принял новое событие за старое
+        slot.sequence = Slot.WRITING;
+        slot.event = event;
+        slot.sequence = sequence;
+        cursor = sequence;
+    }
+
+    /**
+     * Подписывает слушателя на события, опубликованные после подписки
+     * @param name имя подписчика (используется в имени потока)
+     * @param listener слушатель
+     * @return подписка
+     */
+    public Subscription subscribe(String name, LibraryEventListener listener) {
+        Subscription subscription = new Subscription(name, listener, cursor + 1);
+        subscriptions.add(subscription);
+        subscription.thread.start();
+        return subscription;
+    }
+
+    /**
+     * Останавливает все подписки
+     */
+    @Override
+    public void close() {
+        for (Subscription subscription : subscriptions) {
+            subscription.close();
+        }
+    }
+
+    private static final class Slot {
+        static final long WRITING = -1;
+
+        volatile long sequence = WRITING;
+        volatile LibraryEvent event;
+    }
+
+    /**
+     * Подписка на шину. Обрабатывает события в собственном потоке
+     */
+    public final class Subscription implements AutoCloseable {
+        private final LibraryEventListener listener;
+        private final Thread thread;
+        private final List<LibraryEvent> batch = new ArrayList<>();
+        private final List<LibraryEvent> batchView = Collections.unmodifiableList(batch);
+
+        private volatile boolean running = true;
+        private volatile long droppedCount;
+        private volatile long failedBatchCount;
+        private volatile long processedCount;
+        private long next;
+
+        private Subscription(String name, LibraryEventListener listener, long next) {
+            this.listener = listener;
+            this.next = next;
+            this.thread = new Thread(this::run, "library-events-" + name);
+            thread.setDaemon(true);
+        }
+
+        /**
+         * @return количество событий, пропущенных из-за отставания подписчика
+         */
+        public long getDroppedCount() {
+            return droppedCount;
+        }
+
+        /**
+         * @return количество пачек, обработка которых завершилась исключением
+         */
+        public long getFailedBatchCount() {
+            return failedBatchCount;
+        }
+
+        /**
+         * @return количество событий, переданных слушателю
+         */
+        public long getProcessedCount() {
+            return processedCount;
+        }
+
+        /**
+         * Останавливает подписку и дожидается завершения ее потока
+         */
+        @Override
+        public void close() {
+            running = false;
+            LockSupport.unpark(thread);
+            subscriptions.remove(this);
+            if (Thread.currentThread() != thread) {
+                try {
+                    thread.join();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }
+
+        private void run() {
+            while (running) {
+                long available = cursor;
+                if (available < next) {
+                    LockSupport.parkNanos(IDLE_PARK_NANOS);
+                    continue;
+                }
+                if (available - next >= ring.length) {
+                    skipTo(available - ring.length + 1);
+                }
+
+                batch.clear();
+                long end = Math.min(available, next + maxBatch - 1);
+                while (next <= end) {
+                    Slot slot = ring[(int) (next & mask)];
+                    long before = slot.sequence;
+                    LibraryEvent event = slot.event;
+                    long after = slot.sequence;
+                    if (before == next && after == next) {
+                        batch.add(event);
+                        next++;
+                    } else if (before == Slot.WRITING || after == Slot.WRITING) {
+                        Thread.onSpinWait();
+                    } else {
+                        // Ячейку уже перезаписал издатель, который обогнал подписчика на круг
+                        skipTo(Math.max(before, after) - ring.length + 1);
+                        break;
+                    }
+                }
+                deliver();
+            }
+        }
+
+        private void skipTo(long sequence) {
+            if (sequence > next) {
+                droppedCount += sequence - next;
+                next = sequence;
+            }
+        }
+
+        private void deliver() {
+            if (batch.isEmpty()) {
+                return;
+            }
+            try {
+                listener.onEvents(batchView);
+            } catch (RuntimeException e) {
+                failedBatchCount++;
+            }
+            processedCount += batch.size();
+        }
+    }
+}
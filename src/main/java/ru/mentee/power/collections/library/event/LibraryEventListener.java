@@ -0,0 +1,17 @@
+package ru.mentee.power.collections.library.event;
+
+import java.util.List;
+
+/**
+ * Подписчик на события библиотеки
+ */
+@FunctionalInterface
+public interface LibraryEventListener {
+
+    /**
+     * Обрабатывает пачку событий в порядке публикации.
+     * Список переиспользуется между вызовами, сохранять его нельзя
+     * @param events события
+     */
+    void onEvents(List<LibraryEvent> events);
+}
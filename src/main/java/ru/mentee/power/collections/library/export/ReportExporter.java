@@ -0,0 +1,475 @@
+package ru.mentee.power.collections.library.export;
+
+import ru.mentee.power.collections.library.Book;
+import ru.mentee.power.collections.library.Borrowing;
+import ru.mentee.power.collections.library.LibraryManager;
+
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * Потоковая выгрузка отчетов библиотеки в CSV или JSON.
+ *
+ * Строки отчета пишутся сразу в {@link Writer} или {@link WritableByteChannel} (в UTF-8)
+ * по мере обхода данных библиотеки, без промежуточных списков. Каждая строка собирается
+ * в одном переиспользуемом {@link StringBuilder} и копируется в буфер вывода фиксированного
+ * размера, поэтому расход памяти не зависит от объема истории выдач.
+ *
+ * Каждый метод {@code write...} выводит законченный документ (CSV с заголовком или JSON-массив)
+ * и сбрасывает буфер. Закрывать приемник должен вызывающий код. Класс не потокобезопасен.
+ */
+public class ReportExporter implements Flushable {
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private static final String[] BORROWING_COLUMNS = {"isbn", "readerId", "borrowDate", "dueDate", "returnDate"};
+    private static final String[] BOOK_COLUMNS = {"isbn", "title", "authors", "genre", "publicationYear",
+            "pageCount", "totalCopies", "availableCopies"};
+    private static final String[] POPULARITY_COLUMNS = {"isbn", "title", "borrowCount"};
+    private static final String[] GENRE_COLUMNS = {"genre", "bookCount"};
+    private static final String AUTHOR_SEPARATOR = "; ";
+
+    private final Output output;
+    private final ReportFormat format;
+    private final StringBuilder row = new StringBuilder(256);
+
+    private String[] columns;
+    private int column;
+    private long rowCount;
+
+    /**
+     * @param writer приемник символов
+     * @param format формат отчетов
+     */
+    public ReportExporter(Writer writer, ReportFormat format) {
+        this(new WriterOutput(writer), format);
+    }
+
+    /**
+     * @param channel приемник байтов, текст кодируется в UTF-8
+     * @param format формат отчетов
+     */
+    public ReportExporter(WritableByteChannel channel, ReportFormat format) {
+        this(new ChannelOutput(channel), format);
+    }
+
+    private ReportExporter(Output output, ReportFormat format) {
+        this.output = output;
+        this.format = format;
+    }
+
+    /**
+     * Выгружает всю историю выдач
+     * @param library библиотека
+     * @return количество выгруженных строк
+     */
+    public long writeBorrowings(LibraryManager library) throws IOException {
+        return export(BORROWING_COLUMNS, () -> library.forEachBorrowing(this::borrowingRow));
+    }
+
+    /**
+     * Выгружает просроченные выдачи
+     * @param library библиотека
+     * @return количество выгруженных строк
+     */
+    public long writeOverdueBorrowings(LibraryManager library) throws IOException {
+        return export(BORROWING_COLUMNS, () -> library.forEachBorrowing(borrowing -> {
+            if (borrowing.isOverdue()) {
+                borrowingRow(borrowing);
+            }
+        }));
+    }
+
+    /**
+     * Выгружает каталог книг
+     * @param library библиотека
+     * @return количество выгруженных строк
+     */
+    public long writeBooks(LibraryManager library) throws IOException {
+        return export(BOOK_COLUMNS, () -> library.forEachBook(this::bookRow));
+    }
+
+    /**
+     * Выгружает самые популярные книги с количеством выдач.
+     * Книги отбираются по счетчикам выдач библиотеки, поэтому память зависит от limit,
+     * а не от объема каталога или истории выдач
+     * @param library библиотека
+     * @param limit количество книг
+     * @return количество выгруженных строк
+     */
+    public long writePopularBooks(LibraryManager library, int limit) throws IOException {
+        return export(POPULARITY_COLUMNS, () -> library.forEachMostPopularBook(limit, (book, count) -> {
+            beginRow();
+            field(book.getIsbn());
+            field(book.getTitle());
+            field(count);
+            endRow();
+        }));
+    }
+
+    /**
+     * Выгружает количество книг по жанрам
+     * @param library библиотека
+     * @return количество выгруженных строк
+     */
+    public long writeGenreStatistics(LibraryManager library) throws IOException {
+        Map<Book.Genre, Integer> statistics = library.getGenreStatistics();
+        return export(GENRE_COLUMNS, () -> statistics.forEach((genre, count) -> {
+            beginRow();
+            field(genre == null ? null : genre.name());
+            field(count);
+            endRow();
+        }));
+    }
+
+    @Override
+    public void flush() throws IOException {
+        output.flush();
+    }
+
+    private long export(String[] columns, Runnable rows) throws IOException {
+        this.columns = columns;
+        this.rowCount = 0;
+        try {
+            beginDocument();
+            rows.run();
+            endDocument();
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        output.flush();
+        return rowCount;
+    }
+
+    private void borrowingRow(Borrowing borrowing) {
+        beginRow();
+        field(borrowing.getIsbn());
+        field(borrowing.getReaderId());
+        field(borrowing.getBorrowDate());
+        field(borrowing.getDueDate());
+        field(borrowing.getReturnDate());
+        endRow();
+    }
+
+    private void bookRow(Book book) {
+        beginRow();
+        field(book.getIsbn());
+        field(book.getTitle());
+        field(book.getAuthors());
+        field(book.getGenre() == null ? null : book.getGenre().name());
+        field(book.getPublicationYear());
+        field(book.getPageCount());
+        field(book.getTotalCopies());
+        field(book.getAvailableCopies());
+        endRow();
+    }
+
+    // ============ Разметка документа ============
+
+    private void beginDocument() {
+        if (format == ReportFormat.CSV) {
+            for (int i = 0; i < columns.length; i++) {
+                if (i > 0) {
+                    row.append(',');
+                }
+                row.append(columns[i]);
+            }
+            row.append('\n');
+        } else {
+            row.append('[');
+        }
+        writeRow();
+    }
+
+    private void endDocument() {
+        if (format == ReportFormat.JSON) {
+            row.append(rowCount > 0 ? "\n]\n" : "]\n");
+            writeRow();
+        }
+    }
+
+    private void beginRow() {
+        column = 0;
+        if (format == ReportFormat.JSON) {
+            row.append(rowCount > 0 ? ",\n{" : "\n{");
+        }
+    }
+
+    private void endRow() {
+        row.append(format == ReportFormat.CSV ? '\n' : '}');
+        rowCount++;
+        writeRow();
+    }
+
+    private void nextField() {
+        if (column > 0) {
+            row.append(',');
+        }
+        if (format == ReportFormat.JSON) {
+            row.append('"').append(columns[column]).append("\":");
+        }
+        column++;
+    }
+
+    private void field(String value) {
+        nextField();
+        if (value == null) {
+            if (format == ReportFormat.JSON) {
+                row.append("null");
+            }
+        } else if (format == ReportFormat.CSV) {
+            appendCsv(value, csvNeedsQuotes(value));
+        } else {
+            appendJson(value);
+        }
+    }
+
+    private void field(long value) {
+        nextField();
+        row.append(value);
+    }
+
+    private void field(LocalDate date) {
+        nextField();
+        if (date == null) {
+            if (format == ReportFormat.JSON) {
+                row.append("null");
+            }
+            return;
+        }
+        if (format == ReportFormat.JSON) {
+            row.append('"');
+        }
+        appendDate(date);
+        if (format == ReportFormat.JSON) {
+            row.append('"');
+        }
+    }
+
+    private void field(Collection<String> values) {
+        nextField();
+        if (format == ReportFormat.JSON) {
+            row.append('[');
+            boolean first = true;
+            for (String value : values) {
+                if (!first) {
+                    row.append(',');
+                }
+                appendJson(value);
+                first = false;
+            }
+            row.append(']');
+            return;
+        }
+        boolean quoted = false;
+        for (String value : values) {
+            quoted |= csvNeedsQuotes(value);
+        }
+        if (quoted) {
+            row.append('"');
+        }
+        boolean first = true;
+        for (String value : values) {
+            if (!first) {
+                row.append(AUTHOR_SEPARATOR);
+            }
+            appendCsv(value, false);
+            first = false;
+        }
+        if (quoted) {
+            row.append('"');
+        }
+    }
+
+    private static boolean csvNeedsQuotes(String value) {
+        if (value == null) {
+            return false;
+        }
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == ',' || c == '"' || c == '\n' || c == '\r') {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Значение с кавычками всегда попадает в ячейку в кавычках, поэтому кавычки можно удваивать безусловно
+    private void appendCsv(String value, boolean quoted) {
+        if (value == null) {
+            return;
+        }
+        if (quoted) {
+            row.append('"');
+        }
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"') {
+                row.append('"');
+            }
+            row.append(c);
+        }
+        if (quoted) {
+            row.append('"');
+        }
+    }
+
+    private void appendJson(String value) {
+        if (value == null) {
+            row.append("null");
+            return;
+        }
+        row.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"' -> row.append("\\\"");
+                case '\\' -> row.append("\\\\");
+                case '\n' -> row.append("\\n");
+                case '\r' -> row.append("\\r");
+                case '\t' -> row.append("\\t");
+                default -> {
+                    if (c < 0x20) {
+                        row.append("\\u00").append(Character.forDigit(c >> 4, 16)).append(Character.forDigit(c & 0xF, 16));
+                    } else {
+                        row.append(c);
+                    }
+                }
+            }
+        }
+        row.append('"');
+    }
+
+    // ISO-8601 без создания строки через LocalDate.toString()
+    private void appendDate(LocalDate date) {
+        int year = date.getYear();
+        if (year < 1000 || year > 9999) {
+            row.append(date);
+            return;
+        }
+        row.append(year).append('-');
+        appendTwoDigits(date.getMonthValue());
+        row.append('-');
+        appendTwoDigits(date.getDayOfMonth());
+    }
+
+    private void appendTwoDigits(int value) {
+        if (value < 10) {
+            row.append('0');
+        }
+        row.append(value);
+    }
+
+    private void writeRow() {
+        try {
+            output.write(row);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        row.setLength(0);
+    }
+
+    // ============ Приемники ============
+
+    private interface Output {
+        void write(CharSequence chars) throws IOException;
+
+        void flush() throws IOException;
+    }
+
+    private static final class WriterOutput implements Output {
+        private final Writer writer;
+        private final char[] buffer = new char[BUFFER_SIZE];
+        private int position;
+
+        WriterOutput(Writer writer) {
+            this.writer = writer;
+        }
+
+        @Override
+        public void write(CharSequence chars) throws IOException {
+            int offset = 0;
+            while (offset < chars.length()) {
+                if (position == buffer.length) {
+                    drain();
+                }
+                int count = Math.min(chars.length() - offset, buffer.length - position);
+                for (int i = 0; i < count; i++) {
+                    buffer[position++] = chars.charAt(offset++);
+                }
+            }
+        }
+
+        @Override
+        public void flush() throws IOException {
+            drain();
+            writer.flush();
+        }
+
+        private void drain() throws IOException {
+            writer.write(buffer, 0, position);
+            position = 0;
+        }
+    }
+
+    private static final class ChannelOutput implements Output {
+        private final WritableByteChannel channel;
+        private final CharsetEncoder encoder = StandardCharsets.UTF_8.newEncoder()
+                .onMalformedInput(CodingErrorAction.REPLACE)
+                .onUnmappableCharacter(CodingErrorAction.REPLACE);
+        private final CharBuffer chars = CharBuffer.allocate(BUFFER_SIZE / 4);
+        private final ByteBuffer bytes = ByteBuffer.allocateDirect(BUFFER_SIZE);
+
+        ChannelOutput(WritableByteChannel channel) {
+            this.channel = channel;
+        }
+
+        @Override
+        public void write(CharSequence text) throws IOException {
+            int offset = 0;
+            while (offset < text.length()) {
+                if (!chars.hasRemaining()) {
+                    encode();
+                }
+                int count = Math.min(text.length() - offset, chars.remaining());
+                for (int i = 0; i < count; i++) {
+                    chars.put(text.charAt(offset++));
+                }
+            }
+        }
+
+        @Override
+        public void flush() throws IOException {
+            encode();
+            drain();
+        }
+
+        // Незавершенная суррогатная пара остается в буфере символов до следующей порции
+        private void encode() throws IOException {
+            chars.flip();
+            while (encoder.encode(chars, bytes, false) == CoderResult.OVERFLOW) {
+                drain();
+            }
+            chars.compact();
+        }
+
+        private void drain() throws IOException {
+            bytes.flip();
+            while (bytes.hasRemaining()) {
+                channel.write(bytes);
+            }
+            bytes.clear();
+        }
+    }
+}
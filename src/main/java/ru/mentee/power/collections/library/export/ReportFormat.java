@@ -0,0 +1,16 @@
+package ru.mentee.power.collections.library.export;
+
+/**
+ * Формат выгрузки отчетов
+ */
+public enum ReportFormat {
+    /**
+     * Строки CSV с заголовком, разделитель - запятая
+     */
+    CSV,
+
+    /**
+     * JSON-массив объектов
+     */
+    JSON
+}
@@ -0,0 +1,56 @@
+package ru.mentee.power.collections.library.store;
+
+import ru.mentee.power.collections.library.Book;
+
+import java.util.function.Consumer;
+
+/**
+ * Хранилище книг, на котором работает {@link ru.mentee.power.collections.library.LibraryManager}
+ */
+public interface BookStore {
+
+    /**
+     * Получает книгу по ISBN
+     * @param isbn ISBN книги
+     * @return книга или null, если книга не найдена
+     */
+    Book get(String isbn);
+
+    /**
+     * Проверяет наличие книги в хранилище
+     * @param isbn ISBN книги
+     * @return true если книга есть в хранилище
+     */
+    boolean contains(String isbn);
+
+    /**
+     * Добавляет книгу
+     * @param book книга
+     * @return true если книга добавлена, false если книга с таким ISBN уже существует
+     */
+    boolean add(Book book);
+
+    /**
+     * Сохраняет изменения уже добавленной книги
+     * @param book измененная книга
+     */
+    void update(Book book);
+
+    /**
+     * Удаляет книгу
+     * @param isbn ISBN книги
+     * @return удаленная книга или null, если книга не найдена
+     */
+    Book remove(String isbn);
+
+    /**
+     * @return количество книг в хранилище
+     */
+    int size();
+
+    /**
+     * Обходит все книги хранилища
+     * @param action действие для каждой книги
+     */
+    void forEach(Consumer<? super Book> action);
+}
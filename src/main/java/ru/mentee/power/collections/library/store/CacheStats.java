@@ -0,0 +1,19 @@
+package ru.mentee.power.collections.library.store;
+
+/**
+ * Снимок статистики кэша книг
+ * @param hitCount количество попаданий
+ * @param missCount количество промахов (книга загружалась из хранилища)
+ * @param evictionCount количество вытеснений из кэша
+ * @param size текущее количество книг в кэше
+ */
+public record CacheStats(long hitCount, long missCount, long evictionCount, int size) {
+
+    /**
+     * @return доля попаданий среди всех обращений (0, если обращений не было)
+     */
+    public double hitRate() {
+        long requests = hitCount + missCount;
+        return requests == 0 ? 0 : (double) hitCount / requests;
+    }
+}
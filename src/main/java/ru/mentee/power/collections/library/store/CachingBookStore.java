@@ -0,0 +1,153 @@
+package ru.mentee.power.collections.library.store;
+
+import ru.mentee.power.collections.library.Book;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Ограниченный кэш книг поверх другого хранилища (сегментированный LRU).
+ *
+ * Новая книга попадает в испытательный сегмент и вытесняется первой, если к ней больше не обращаются.
+ * Повторное обращение переводит книгу в защищенный сегмент, где живут популярные книги.
+ * Вытесненная из защищенного сегмента книга возвращается в испытательный, поэтому разовые
+ * обращения (например, полный обход каталога) не вымывают популярные книги.
+ *
+ * Изменения сразу записываются в нижележащее хранилище. Класс не потокобезопасен.
+ */
+public class CachingBookStore implements BookStore {
+    private final BookStore delegate;
+    private final int capacity;
+    private final int protectedCapacity;
+
+    // Оба сегмента хранят книги в порядке от давно использованных к недавно использованным.
+    // Порядок поддерживается вручную, чтобы обход каталога не менял его
+    private final LinkedHashMap<String, Book> probation = new LinkedHashMap<>();
+    private final LinkedHashMap<String, Book> protectedSegment = new LinkedHashMap<>();
+
+    private long hitCount;
+    private long missCount;
+    private long evictionCount;
+
+    /**
+     * @param delegate хранилище, из которого загружаются книги
+     * @param capacity максимальное количество книг в кэше
+     */
+    public CachingBookStore(BookStore delegate, int capacity) {
+        if (capacity < 2) {
+            throw new IllegalArgumentException("Вместимость кэша должна быть не меньше 2");
+        }
+        this.delegate = delegate;
+        this.capacity = capacity;
+        this.protectedCapacity = capacity * 4 / 5;
+    }
+
+    @Override
+    public Book get(String isbn) {
+        Book book = protectedSegment.remove(isbn);
+        if (book != null) {
+            hitCount++;
+            protectedSegment.put(isbn, book);
+            return book;
+        }
+        book = probation.remove(isbn);
+        if (book != null) {
+            hitCount++;
+            promote(isbn, book);
+            return book;
+        }
+
+        missCount++;
+        book = delegate.get(isbn);
+        if (book != null) {
+            admit(isbn, book);
+        }
+        return book;
+    }
+
+    @Override
+    public boolean contains(String isbn) {
+        return protectedSegment.containsKey(isbn) || probation.containsKey(isbn) || delegate.contains(isbn);
+    }
+
+    @Override
+    public boolean add(Book book) {
+        if (!delegate.add(book)) {
+            return false;
+        }
+        admit(book.getIsbn(), book);
+        return true;
+    }
+
+    @Override
+    public void update(Book book) {
+        delegate.update(book);
+        if (protectedSegment.containsKey(book.getIsbn())) {
+            protectedSegment.put(book.getIsbn(), book);
+        } else if (probation.containsKey(book.getIsbn())) {
+            probation.put(book.getIsbn(), book);
+        }
+    }
+
+    @Override
+    public Book remove(String isbn) {
+        Book cached = protectedSegment.remove(isbn);
+        if (cached == null) {
+            cached = probation.remove(isbn);
+        }
+        Book removed = delegate.remove(isbn);
+        return cached != null ? cached : removed;
+    }
+
+    @Override
+    public int size() {
+        return delegate.size();
+    }
+
+    /**
+     * Обходит все книги. Книги, которых нет в кэше, читаются из хранилища, но в кэш не попадают
+     */
+    @Override
+    public void forEach(Consumer<? super Book> action) {
+        delegate.forEach(stored -> {
+            Book cached = protectedSegment.get(stored.getIsbn());
+            if (cached == null) {
+                cached = probation.get(stored.getIsbn());
+            }
+            action.accept(cached != null ? cached : stored);
+        });
+    }
+
+    /**
+     * @return текущая статистика кэша
+     */
+    public CacheStats getStats() {
+        return new CacheStats(hitCount, missCount, evictionCount, probation.size() + protectedSegment.size());
+    }
+
+    private void admit(String isbn, Book book) {
+        // Пока защищенный сегмент не заполнен, испытательный может занимать его место
+        probation.put(isbn, book);
+        while (probation.size() + protectedSegment.size() > capacity) {
+            removeEldest(probation.isEmpty() ? protectedSegment : probation);
+            evictionCount++;
+        }
+    }
+
+    private void promote(String isbn, Book book) {
+        protectedSegment.put(isbn, book);
+        if (protectedSegment.size() > protectedCapacity) {
+            Map.Entry<String, Book> demoted = removeEldest(protectedSegment);
+            probation.put(demoted.getKey(), demoted.getValue());
+        }
+    }
+
+    private static Map.Entry<String, Book> removeEldest(LinkedHashMap<String, Book> segment) {
+        Iterator<Map.Entry<String, Book>> iterator = segment.entrySet().iterator();
+        Map.Entry<String, Book> eldest = iterator.next();
+        iterator.remove();
+        return eldest;
+    }
+}
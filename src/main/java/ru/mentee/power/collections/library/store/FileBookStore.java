@@ -0,0 +1,340 @@
+package ru.mentee.power.collections.library.store;
+
+import ru.mentee.power.collections.library.Book;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Хранилище книг в локальном файле. В памяти держится только индекс "ISBN -> смещение записи",
+ * сами книги читаются с диска при каждом обращении.
+ *
+ * Записи только дописываются в конец файла: измененная книга записывается заново, а старая запись
+ * становится мусором, удаление книги записывается отдельной записью-отметкой. Когда мусора
+ * становится больше, чем живых данных, файл уплотняется. При открытии существующего файла индекс
+ * восстанавливается его просмотром, а недописанная последняя запись отбрасывается.
+ *
+ * Возвращаемые книги - прочитанные с диска копии: их изменения не попадают в файл, пока копия
+ * не передана в {@link #update(Book)}. Класс не потокобезопасен.
+ */
+public class FileBookStore implements BookStore, Closeable {
+    private static final long COMPACTION_THRESHOLD = 1 << 20;
+
+    private final Path file;
+    private FileChannel channel;
+    private final Map<String, Long> offsets = new HashMap<>();
+    private long end;
+    private long garbageBytes;
+
+    private ByteBuffer buffer = ByteBuffer.allocate(512);
+    private final ByteBuffer lengthBuffer = ByteBuffer.allocate(Integer.BYTES);
+
+    /**
+     * Открывает хранилище в указанном файле. Если файл уже существует, книги из него
+     * снова становятся доступны
+     * @param file путь к файлу данных
+     * @throws IOException если файл не удалось открыть или прочитать
+     */
+    public FileBookStore(Path file) throws IOException {
+        this.file = file;
+        this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        try {
+            load();
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    @Override
+    public Book get(String isbn) {
+        Long offset = offsets.get(isbn);
+        if (offset == null) {
+            return null;
+        }
+        try {
+            return readRecord(offset);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public boolean contains(String isbn) {
+        return offsets.containsKey(isbn);
+    }
+
+    @Override
+    public boolean add(Book book) {
+        if (offsets.containsKey(book.getIsbn())) {
+            return false;
+        }
+        offsets.put(book.getIsbn(), append(book));
+        return true;
+    }
+
+    @Override
+    public void update(Book book) {
+        Long previous = offsets.get(book.getIsbn());
+        if (previous == null) {
+            return;
+        }
+        offsets.put(book.getIsbn(), append(book));
+        discard(previous);
+    }
+
+    @Override
+    public Book remove(String isbn) {
+        Book book = get(isbn);
+        if (book != null) {
+            long previous = offsets.remove(isbn);
+            long tombstone = end;
+            appendTombstone(isbn);
+            garbageBytes += end - tombstone;
+            discard(previous);
+        }
+        return book;
+    }
+
+    @Override
+    public int size() {
+        return offsets.size();
+    }
+
+    @Override
+    public void forEach(Consumer<? super Book> action) {
+        for (Long offset : offsets.values()) {
+            try {
+                action.accept(readRecord(offset));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    /**
+     * @return размер файла данных в байтах
+     */
+    public long getFileSize() {
+        return end;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    /**
+     * Просматривает файл и восстанавливает индекс: более поздняя запись книги заменяет раннюю,
+     * отметка удаления убирает книгу из индекса
+     */
+    private void load() throws IOException {
+        long size = channel.size();
+        long position = 0;
+        try {
+            while (position + Integer.BYTES <= size) {
+                lengthBuffer.clear();
+                readFully(lengthBuffer, position);
+                int header = lengthBuffer.getInt(0);
+                int length = Math.abs(header);
+                if (header == 0 || position + Integer.BYTES + length > size) {
+                    break;
+                }
+                ensureCapacity(length);
+                buffer.clear().limit(length);
+                readFully(buffer, position + Integer.BYTES);
+                buffer.flip();
+                String isbn = getString();
+                if (header < 0) {
+                    offsets.remove(isbn);
+                } else {
+                    offsets.put(isbn, position);
+                }
+                position += Integer.BYTES + length;
+            }
+        } catch (BufferUnderflowException | IndexOutOfBoundsException e) {
+            throw new IOException("Файл хранилища поврежден: " + file, e);
+        }
+        if (position < size) {
+            channel.truncate(position);
+        }
+        end = position;
+
+        long liveBytes = 0;
+        for (Long offset : offsets.values()) {
+            lengthBuffer.clear();
+            readFully(lengthBuffer, offset);
+            liveBytes += Integer.BYTES + lengthBuffer.getInt(0);
+        }
+        garbageBytes = end - liveBytes;
+    }
+
+    private long append(Book book) {
+        encode(book);
+        return write();
+    }
+
+    // Отметка удаления хранит только ISBN, а ее длина записывается со знаком минус
+    private void appendTombstone(String isbn) {
+        buffer.clear();
+        buffer.position(Integer.BYTES);
+        putString(isbn);
+        buffer.putInt(0, -(buffer.position() - Integer.BYTES));
+        buffer.flip();
+        write();
+    }
+
+    private long write() {
+        long offset = end;
+        try {
+            while (buffer.hasRemaining()) {
+                end += channel.write(buffer, end);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return offset;
+    }
+
+    private void discard(long offset) {
+        try {
+            lengthBuffer.clear();
+            readFully(lengthBuffer, offset);
+            garbageBytes += Integer.BYTES + lengthBuffer.getInt(0);
+            if (garbageBytes > COMPACTION_THRESHOLD && garbageBytes > end - garbageBytes) {
+                compact();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Переписывает живые записи в новый файл, освобождая место от устаревших записей
+     */
+    private void compact() throws IOException {
+        Path compacted = file.resolveSibling(file.getFileName() + ".compact");
+        long position = 0;
+        try (FileChannel target = FileChannel.open(compacted, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            for (Map.Entry<String, Long> entry : offsets.entrySet()) {
+                lengthBuffer.clear();
+                readFully(lengthBuffer, entry.getValue());
+                long size = Integer.BYTES + lengthBuffer.getInt(0);
+                long transferred = 0;
+                while (transferred < size) {
+                    transferred += channel.transferTo(entry.getValue() + transferred, size - transferred, target);
+                }
+                entry.setValue(position);
+                position += size;
+            }
+        }
+        channel.close();
+        Files.move(compacted, file, StandardCopyOption.REPLACE_EXISTING);
+        channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        end = position;
+        garbageBytes = 0;
+    }
+
+    private Book readRecord(long offset) throws IOException {
+        lengthBuffer.clear();
+        readFully(lengthBuffer, offset);
+        int length = lengthBuffer.getInt(0);
+        ensureCapacity(length);
+        buffer.clear().limit(length);
+        readFully(buffer, offset + Integer.BYTES);
+        buffer.flip();
+
+        String isbn = getString();
+        String title = getString();
+        byte genre = buffer.get();
+        Book book = new Book(isbn, title, buffer.getInt(), genre < 0 ? null : Book.Genre.values()[genre]);
+        book.setPageCount(buffer.getInt());
+        book.setTotalCopies(buffer.getInt());
+        book.setAvailableCopies(buffer.getInt());
+        int authorCount = buffer.getInt();
+        for (int i = 0; i < authorCount; i++) {
+            book.addAuthor(getString());
+        }
+        return book;
+    }
+
+    private void encode(Book book) {
+        buffer.clear();
+        buffer.position(Integer.BYTES);
+        putString(book.getIsbn());
+        putString(book.getTitle());
+        ensureRemaining(Byte.BYTES + 5 * Integer.BYTES);
+        buffer.put((byte) (book.getGenre() == null ? -1 : book.getGenre().ordinal()));
+        buffer.putInt(book.getPublicationYear());
+        buffer.putInt(book.getPageCount());
+        buffer.putInt(book.getTotalCopies());
+        buffer.putInt(book.getAvailableCopies());
+        buffer.putInt(book.getAuthors().size());
+        for (String author : book.getAuthors()) {
+            putString(author);
+        }
+        buffer.putInt(0, buffer.position() - Integer.BYTES);
+        buffer.flip();
+    }
+
+    private void putString(String value) {
+        if (value == null) {
+            ensureRemaining(Integer.BYTES);
+            buffer.putInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        ensureRemaining(Integer.BYTES + bytes.length);
+        buffer.putInt(bytes.length);
+        buffer.put(bytes);
+    }
+
+    private String getString() {
+        int length = buffer.getInt();
+        if (length < 0) {
+            return null;
+        }
+        String value = new String(buffer.array(), buffer.position(), length, StandardCharsets.UTF_8);
+        buffer.position(buffer.position() + length);
+        return value;
+    }
+
+    private void ensureRemaining(int bytes) {
+        if (buffer.remaining() < bytes) {
+            ByteBuffer larger = ByteBuffer.allocate(Math.max(buffer.capacity() * 2, buffer.position() + bytes));
+            buffer.flip();
+            larger.put(buffer);
+            buffer = larger;
+        }
+    }
+
+    private void ensureCapacity(int bytes) {
+        if (buffer.capacity() < bytes) {
+            buffer = ByteBuffer.allocate(Math.max(buffer.capacity() * 2, bytes));
+        }
+    }
+
+    private void readFully(ByteBuffer target, long position) throws IOException {
+        while (target.hasRemaining()) {
+            int read = channel.read(target, position);
+            if (read < 0) {
+                throw new IOException("Неожиданный конец файла хранилища: " + file);
+            }
+            position += read;
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package ru.mentee.power.collections.library.store;
+
+import ru.mentee.power.collections.library.Book;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Хранилище книг в памяти на основе HashMap
+ */
+public class InMemoryBookStore implements BookStore {
+    private final Map<String, Book> books;
+
+    public InMemoryBookStore() {
+        this(16);
+    }
+
+    /**
+     * @param expectedSize ожидаемое количество книг
+     */
+    public InMemoryBookStore(int expectedSize) {
+        books = HashMap.newHashMap(expectedSize);
+    }
+
+    @Override
+    public Book get(String isbn) {
+        return books.get(isbn);
+    }
+
+    @Override
+    public boolean contains(String isbn) {
+        return books.containsKey(isbn);
+    }
+
+    @Override
+    public boolean add(Book book) {
+        return books.putIfAbsent(book.getIsbn(), book) == null;
+    }
+
+    @Override
+    public void update(Book book) {
+        // книги хранятся по ссылке, изменения уже видны
+    }
+
+    @Override
+    public Book remove(String isbn) {
+        return books.remove(isbn);
+    }
+
+    @Override
+    public int size() {
+        return books.size();
+    }
+
+    @Override
+    public void forEach(Consumer<? super Book> action) {
+        books.values().forEach(action);
+    }
+}
@@ -7,21 +7,69 @@ import java.util.function.Predicate;
  * Класс для управления каталогом книг в библиотеке
  */
 public class BookCatalog {
+    private static final Comparator<Book> BY_TITLE = (o1, o2) -> o1.getTitle().compareToIgnoreCase(o2.getTitle());
+    private static final Comparator<Book> BY_AUTHOR = Comparator.comparing(Book::getAuthor);
+    private static final Comparator<Book> BY_YEAR_PUBLISHED = Comparator.comparingInt(Book::getYearPublished);
+    private static final Comparator<Book> BY_PAGE_COUNT = Comparator.comparingInt(Book::getPageCount);
+
+    // Сколько отсортированных представлений хранится одновременно
+    private static final int MAX_SORTED_VIEWS = 8;
+
     private List<Book> books;
+    private final BookIndex index;
+    private final StringPool stringPool;
+    private final Map<Comparator<Book>, SortedView> sortedViews =
+            new LinkedHashMap<>(MAX_SORTED_VIEWS * 2, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<Comparator<Book>, SortedView> eldest) {
+                    return size() > MAX_SORTED_VIEWS;
+                }
+            };
 
     /**
      * Создает пустой каталог книг
      */
     public BookCatalog() {
+        this(new StringPool());
+    }
+
+    /**
+     * Создает пустой каталог книг с общим пулом строк
+     * (пул потокобезопасен и может использоваться несколькими каталогами)
+     * @param stringPool пул для авторов и жанров
+     */
+    public BookCatalog(StringPool stringPool) {
+        if (stringPool == null) {
+            throw new IllegalArgumentException("Пул строк не может быть null");
+        }
         books = new ArrayList<>();
+        index = new BookIndex(books);
+        this.stringPool = stringPool;
     }
 
     /**
-     * Добавляет книгу в каталог
+     * Добавляет книгу в каталог.
+     * Автор и жанр берутся из пула каталога: если в пуле уже есть равная строка другого объекта,
+     * в каталог попадает копия книги с этой строкой, а переданная книга не меняется.
+     * Поэтому у книг одного автора (жанра) в каталоге один и тот же объект строки,
+     * пока в пуле есть место; строки, не попавшие в заполненный пул, остаются как есть
      * @param book книга для добавления
      */
     public void addBook(Book book) {
+        String author = stringPool.intern(book.getAuthor());
+        String genre = stringPool.intern(book.getGenre());
+        if (author != book.getAuthor() || genre != book.getGenre()) {
+            book = new Book(book.getTitle(), author, book.getYearPublished(), book.getPageCount(), genre);
+        }
         books.add(book);
+        index.add(books.size() - 1, book);
+    }
+
+    /**
+     * @return пул строк каталога, в том числе для статистики экономии памяти
+     */
+    public StringPool getStringPool() {
+        return stringPool;
     }
 
     /**
@@ -33,25 +81,114 @@ public class BookCatalog {
     }
 
     /**
-     * Сортирует книги по заданному компаратору
+     * Сортирует книги по заданному компаратору.
+     * Для {@link BookOrdering} ключи сортировки вычисляются один раз для каждой книги
+     * и сортируются как массив long, порядок при этом тот же, что и при сортировке компаратором.
+     * Если для компаратора уже есть {@link #sortedView(Comparator)}, возвращается его копия
      * @param comparator компаратор для сортировки
      * @return новый отсортированный список книг (исходный список не меняется)
      */
     public List<Book> sortBooks(Comparator<Book> comparator) {
+        SortedView cached = sortedViews.get(comparator);
+        if (cached != null) {
+            return new ArrayList<>(cached.update(books));
+        }
+        if (comparator instanceof BookOrdering ordering) {
+            return BookSortKeys.sort(books, ordering);
+        }
         List<Book> newList = new ArrayList<>(books);
         newList.sort(comparator);
         return newList;
     }
 
     /**
-     * Фильтрует книги по заданному предикату
+     * Возвращает неизменяемый отсортированный список книг.
+     * Представление запоминается для компаратора (по ссылке на объект компаратора), поэтому
+     * повторный вызов с тем же компаратором возвращает его без сортировки. Книги, добавленные
+     * после прошлого вызова, сортируются отдельно и сливаются с представлением за один проход,
+     * поэтому массовое добавление не пересобирает представления после каждой книги.
+     * Уже выданные списки не меняются.
+     * Для стандартных порядков используйте {@link #byTitle()}, {@link #byAuthor()} и т.д. -
+     * они возвращают один и тот же компаратор
+     * @param comparator компаратор для сортировки
+     * @return неизменяемый отсортированный список книг
+     */
+    public List<Book> sortedView(Comparator<Book> comparator) {
+        if (comparator == null) {
+            throw new IllegalArgumentException("Компаратор не может быть null");
+        }
+        SortedView view = sortedViews.get(comparator);
+        if (view == null) {
+            view = new SortedView(sortBooks(comparator), comparator);
+            sortedViews.put(comparator, view);
+        }
+        view.update(books);
+        return view.publish();
+    }
+
+    /**
+     * Возвращает первые limit книг в порядке компаратора, не сортируя весь каталог.
+     * Результат совпадает с началом списка {@link #sortBooks(Comparator)}
+     * @param comparator компаратор для сортировки
+     * @param limit максимальное количество книг в результате
+     * @return новый отсортированный список не более чем из limit книг
+     */
+    public List<Book> sortBooks(Comparator<Book> comparator, int limit) {
+        SortedView cached = sortedViews.get(comparator);
+        if (cached != null && limit >= 0) {
+            List<Book> sorted = cached.update(books);
+            return new ArrayList<>(sorted.subList(0, Math.min(limit, sorted.size())));
+        }
+        return filterAndSort(book -> true, comparator, limit);
+    }
+
+    /**
+     * Возвращает первые limit книг, удовлетворяющих условию, в порядке компаратора
      * @param predicate условие фильтрации
-     * @return новый список книг, удовлетворяющих условию
+     * @param comparator компаратор для сортировки
+     * @param limit максимальное количество книг в результате
+     * @return новый отсортированный список не более чем из limit книг
+     */
+    public List<Book> filterAndSort(Predicate<Book> predicate, Comparator<Book> comparator, int limit) {
+        if (predicate == null) {
+            throw new IllegalArgumentException("Предикат не может быть null");
+        }
+        if (comparator == null) {
+            throw new IllegalArgumentException("Компаратор не может быть null");
+        }
+        if (limit < 0) {
+            throw new IllegalArgumentException("Лимит не может быть отрицательным");
+        }
+
+        BoundedBookHeap heap = new BoundedBookHeap(comparator, Math.min(limit, books.size()));
+        if (predicate instanceof BookFilter filter) {
+            for (Book book : index.filter(filter)) {
+                heap.offer(book);
+            }
+            return heap.toSortedList();
+        }
+        for (Book book : books) {
+            if (predicate.test(book)) {
+                heap.offer(book);
+            }
+        }
+        return heap.toSortedList();
+    }
+
+    /**
+     * Фильтрует книги по заданному предикату.
+     * Условия {@link BookFilter} выполняются по индексам каталога, остальные предикаты -
+     * перебором всех книг
+     * @param predicate условие фильтрации
+     * @return новый список книг, удовлетворяющих условию, в порядке добавления
      */
     public List<Book> filterBooks(Predicate<Book> predicate) {
         if (predicate == null) {
             throw new IllegalArgumentException("Предикат не может быть null");
         }
+        if (predicate instanceof BookFilter filter) {
+            return index.filter(filter);
+        }
 
         List<Book> result = new ArrayList<>();
 
@@ -70,32 +207,33 @@ public class BookCatalog {
      * @return компаратор для сортировки по названию (по алфавиту)
      */
     public static Comparator<Book> byTitle() {
-        return (o1, o2) -> o1.getTitle().compareToIgnoreCase(o2.getTitle());
+        return BY_TITLE;
     }
 
     /**
      * @return компаратор для сортировки по автору (по алфавиту)
      */
     public static Comparator<Book> byAuthor() {
-        return Comparator.comparing(Book::getAuthor);
+        return BY_AUTHOR;
     }
 
     /**
      * @return компаратор для сортировки по году издания (от старых к новым)
      */
     public static Comparator<Book> byYearPublished() {
-        return Comparator.comparing(Book::getYearPublished);
+        return BY_YEAR_PUBLISHED;
     }
 
     /**
      * @return компаратор для сортировки по количеству страниц (от меньшего к большему)
      */
     public static Comparator<Book> byPageCount() {
-        return Comparator.comparing(Book::getPageCount);
+        return BY_PAGE_COUNT;
     }
 
     /**
-     * Создает сложный компаратор для сортировки по нескольким критериям
+     * Создает сложный компаратор для сортировки по нескольким критериям.
+     * Для критериев каталога удобнее и быстрее {@link BookOrdering}
      * @param comparators список компараторов в порядке приоритета
      * @return композитный компаратор
      */
@@ -105,12 +243,69 @@ public class BookCatalog {
             @Override
             public int compare(Book o1, Book o2) {
                 for (Comparator<Book> comparator : comparators) {
-                    if(comparator.compare(o1, o2) != 0) {
-                        return comparator.compare(o1, o2);
+                    int result = comparator.compare(o1, o2);
+                    if(result != 0) {
+                        return result;
                     }
                 }
                 return 0;
             }
         };
     }
-}
\ No newline at end of file
+
+    /**
+     * Отсортированная копия каталога для одного компаратора.
+     * Книги в каталоге только добавляются в конец, поэтому представлению достаточно помнить,
+     * сколько первых книг каталога оно уже содержит. Слияние всегда создает новый список,
+     * поэтому выданный наружу список не меняется
+     */
+    private static final class SortedView {
+        private final Comparator<Book> comparator;
+        private List<Book> books;
+        private List<Book> published;
+        private int covered;
+
+        SortedView(List<Book> books, Comparator<Book> comparator) {
+            this.books = books;
+            this.comparator = comparator;
+            this.covered = books.size();
+        }
+
+        List<Book> publish() {
+            if (published == null) {
+                published = Collections.unmodifiableList(books);
+            }
+            return published;
+        }
+
+        /**
+         * Досортировывает книги, добавленные в каталог с прошлого обновления
+         * @param catalog все книги каталога в порядке добавления
+         * @return актуальный отсортированный список
+         */
+        List<Book> update(List<Book> catalog) {
+            if (covered == catalog.size()) {
+                return books;
+            }
+            List<Book> added = new ArrayList<>(catalog.subList(covered, catalog.size()));
+            added.sort(comparator);
+            // Новые книги встают после равных им старых, как при устойчивой сортировке
+            List<Book> merged = new ArrayList<>(books.size() + added.size());
+            int i = 0;
+            int j = 0;
+            while (i < books.size() && j < added.size()) {
+                if (comparator.compare(books.get(i), added.get(j)) <= 0) {
+                    merged.add(books.get(i++));
+                } else {
+                    merged.add(added.get(j++));
+                }
+            }
+            merged.addAll(books.subList(i, books.size()));
+            merged.addAll(added.subList(j, added.size()));
+            books = merged;
+            published = null;
+            covered = catalog.size();
+            return books;
+        }
+    }
+}
@@ -0,0 +1,171 @@
+package ru.mentee.power.comparators;
+
+import java.util.Objects;
+import java.util.function.Predicate;
+
+/**
+ * Условие отбора книг из известных каталогу частей: автор, жанр, диапазон года издания
+ * и диапазон количества страниц.
+ *
+ * В отличие от произвольной лямбды, {@link BookCatalog#filterBooks(Predicate)} отвечает на такие
+ * условия по индексам каталога, не просматривая все книги. Условия объединяются через
+ * {@link #and(BookFilter)}; диапазоны включают обе границы.
+ *
+ * Пример: {@code BookFilter.authorEquals("Толстой Л.Н.").and(BookFilter.yearBetween(1860, 1880))}
+ */
+public final class BookFilter implements Predicate<Book> {
+    private static final int NO_MIN = Integer.MIN_VALUE;
+    private static final int NO_MAX = Integer.MAX_VALUE;
+
+    private final boolean hasAuthor;
+    private final String author;
+    private final boolean hasGenre;
+    private final String genre;
+    private final int minYear;
+    private final int maxYear;
+    private final int minPages;
+    private final int maxPages;
+    // Условие противоречиво (например, два разных автора) и не подходит ни одной книге
+    private final boolean contradictory;
+
+    private BookFilter(boolean hasAuthor, String author, boolean hasGenre, String genre,
+                       int minYear, int maxYear, int minPages, int maxPages, boolean contradictory) {
+        this.hasAuthor = hasAuthor;
+        this.author = author;
+        this.hasGenre = hasGenre;
+        this.genre = genre;
+        this.minYear = minYear;
+        this.maxYear = maxYear;
+        this.minPages = minPages;
+        this.maxPages = maxPages;
+        this.contradictory = contradictory || minYear > maxYear || minPages > maxPages;
+    }
+
+    /**
+     * @param author автор
+     * @return условие "автор книги равен author"
+     */
+    public static BookFilter authorEquals(String author) {
+        return new BookFilter(true, author, false, null, NO_MIN, NO_MAX, NO_MIN, NO_MAX, false);
+    }
+
+    /**
+     * @param genre жанр
+     * @return условие "жанр книги равен genre"
+     */
+    public static BookFilter genreEquals(String genre) {
+        return new BookFilter(false, null, true, genre, NO_MIN, NO_MAX, NO_MIN, NO_MAX, false);
+    }
+
+    /**
+     * @param fromYear первый год (включительно)
+     * @param toYear последний год (включительно)
+     * @return условие на год издания
+     */
+    public static BookFilter yearBetween(int fromYear, int toYear) {
+        return new BookFilter(false, null, false, null, fromYear, toYear, NO_MIN, NO_MAX, false);
+    }
+
+    /**
+     * @param minPages минимальное количество страниц (включительно)
+     * @param maxPages максимальное количество страниц (включительно)
+     * @return условие на количество страниц
+     */
+    public static BookFilter pageCountBetween(int minPages, int maxPages) {
+        return new BookFilter(false, null, false, null, NO_MIN, NO_MAX, minPages, maxPages, false);
+    }
+
+    /**
+     * Объединяет два условия: книга должна удовлетворять обоим
+     * @param other другое условие
+     * @return новое условие
+     */
+    public BookFilter and(BookFilter other) {
+        if (other == null) {
+            throw new IllegalArgumentException("Условие не может быть null");
+        }
+        boolean conflict = contradictory || other.contradictory
+                || (hasAuthor && other.hasAuthor && !Objects.equals(author, other.author))
+                || (hasGenre && other.hasGenre && !Objects.equals(genre, other.genre));
+        return new BookFilter(
+                hasAuthor || other.hasAuthor, hasAuthor ? author : other.author,
+                hasGenre || other.hasGenre, hasGenre ? genre : other.genre,
+                Math.max(minYear, other.minYear), Math.min(maxYear, other.maxYear),
+                Math.max(minPages, other.minPages), Math.min(maxPages, other.maxPages),
+                conflict);
+    }
+
+    @Override
+    public boolean test(Book book) {
+        return !contradictory
+                && (!hasAuthor || Objects.equals(author, book.getAuthor()))
+                && (!hasGenre || Objects.equals(genre, book.getGenre()))
+                && book.getYearPublished() >= minYear && book.getYearPublished() <= maxYear
+                && book.getPageCount() >= minPages && book.getPageCount() <= maxPages;
+    }
+
+    boolean hasAuthor() {
+        return hasAuthor;
+    }
+
+    String getAuthor() {
+        return author;
+    }
+
+    boolean hasGenre() {
+        return hasGenre;
+    }
+
+    String getGenre() {
+        return genre;
+    }
+
+    boolean hasYearRange() {
+        return minYear != NO_MIN || maxYear != NO_MAX;
+    }
+
+    int getMinYear() {
+        return minYear;
+    }
+
+    int getMaxYear() {
+        return maxYear;
+    }
+
+    boolean hasPageRange() {
+        return minPages != NO_MIN || maxPages != NO_MAX;
+    }
+
+    int getMinPages() {
+        return minPages;
+    }
+
+    int getMaxPages() {
+        return maxPages;
+    }
+
+    boolean isContradictory() {
+        return contradictory;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder result = new StringBuilder("BookFilter[");
+        if (hasAuthor) {
+            result.append("author=").append(author).append(' ');
+        }
+        if (hasGenre) {
+            result.append("genre=").append(genre).append(' ');
+        }
+        if (hasYearRange()) {
+            result.append("year=").append(minYear).append("..").append(maxYear).append(' ');
+        }
+        if (hasPageRange()) {
+            result.append("pages=").append(minPages).append("..").append(maxPages).append(' ');
+        }
+        if (contradictory) {
+            result.append("none ");
+        }
+        return result.toString().stripTrailing() + "]";
+    }
+}
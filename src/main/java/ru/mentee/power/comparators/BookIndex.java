@@ -0,0 +1,213 @@
+package ru.mentee.power.comparators;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.ToIntFunction;
+
+/**
+ * Вторичные индексы каталога для {@link BookFilter}.
+ *
+ * Позиции книг по автору и жанру хранятся списками и дополняются при каждом добавлении.
+ * Для года издания и количества страниц хранятся отсортированные массивы ключей
+ * {@code (значение << 32) | позиция}, диапазон находится двоичным поиском. Эти массивы
+ * перестраиваются лениво: книги, добавленные после построения, проверяются перебором,
+ * пока их не станет слишком много.
+ */
+final class BookIndex {
+    private static final int MIN_UNINDEXED_TAIL = 1024;
+
+    private final List<Book> books;
+    private final Map<String, Positions> byAuthor = new HashMap<>();
+    private final Map<String, Positions> byGenre = new HashMap<>();
+    private final RangeIndex byYear = new RangeIndex(Book::getYearPublished);
+    private final RangeIndex byPageCount = new RangeIndex(Book::getPageCount);
+
+    /**
+     * @param books книги каталога, индекс читает их по позициям
+     */
+    BookIndex(List<Book> books) {
+        this.books = books;
+        for (int i = 0; i < books.size(); i++) {
+            add(i, books.get(i));
+        }
+    }
+
+    /**
+     * Учитывает книгу, добавленную в конец каталога
+     * @param position позиция книги
+     * @param book книга
+     */
+    void add(int position, Book book) {
+        byAuthor.computeIfAbsent(book.getAuthor(), key -> new Positions()).add(position);
+        byGenre.computeIfAbsent(book.getGenre(), key -> new Positions()).add(position);
+    }
+
+    /**
+     * Отбирает книги по условию через самый избирательный из подходящих индексов
+     * @param filter условие
+     * @return книги в порядке добавления
+     */
+    List<Book> filter(BookFilter filter) {
+        if (filter.isContradictory()) {
+            return new ArrayList<>();
+        }
+
+        int[] candidates = null;
+        int candidateCount = books.size();
+        if (filter.hasAuthor()) {
+            Positions positions = byAuthor.getOrDefault(filter.getAuthor(), Positions.EMPTY);
+            if (positions.size < candidateCount) {
+                candidates = positions.values;
+                candidateCount = positions.size;
+            }
+        }
+        if (filter.hasGenre()) {
+            Positions positions = byGenre.getOrDefault(filter.getGenre(), Positions.EMPTY);
+            if (positions.size < candidateCount) {
+                candidates = positions.values;
+                candidateCount = positions.size;
+            }
+        }
+        if (filter.hasYearRange() && byYear.count(books, filter.getMinYear(), filter.getMaxYear()) < candidateCount) {
+            candidates = byYear.positions(books, filter.getMinYear(), filter.getMaxYear());
+            candidateCount = candidates.length;
+        }
+        if (filter.hasPageRange()
+                && byPageCount.count(books, filter.getMinPages(), filter.getMaxPages()) < candidateCount) {
+            candidates = byPageCount.positions(books, filter.getMinPages(), filter.getMaxPages());
+            candidateCount = candidates.length;
+        }
+
+        List<Book> result = new ArrayList<>();
+        if (candidates == null) {
+            for (Book book : books) {
+                if (filter.test(book)) {
+                    result.add(book);
+                }
+            }
+            return result;
+        }
+        for (int i = 0; i < candidateCount; i++) {
+            Book book = books.get(candidates[i]);
+            if (filter.test(book)) {
+                result.add(book);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Возрастающий список позиций книг
+     */
+    private static final class Positions {
+        static final Positions EMPTY = new Positions();
+
+        int[] values = new int[4];
+        int size;
+
+        void add(int position) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = position;
+        }
+    }
+
+    /**
+     * Отсортированные ключи {@code (значение << 32) | позиция} для первых indexed книг
+     */
+    private static final class RangeIndex {
+        private final ToIntFunction<Book> field;
+        private long[] keys = new long[0];
+        private int indexed;
+
+        RangeIndex(ToIntFunction<Book> field) {
+            this.field = field;
+        }
+
+        int count(List<Book> books, int min, int max) {
+            refresh(books);
+            int count = upperBound(max) - lowerBound(min);
+            for (int position = indexed; position < books.size(); position++) {
+                if (inRange(books.get(position), min, max)) {
+                    count++;
+                }
+            }
+            return count;
+        }
+
+        /**
+         * @return возрастающие позиции книг, у которых значение в диапазоне
+         */
+        int[] positions(List<Book> books, int min, int max) {
+            refresh(books);
+            int from = lowerBound(min);
+            int to = upperBound(max);
+            int[] positions = new int[to - from + books.size() - indexed];
+            int count = 0;
+            for (int i = from; i < to; i++) {
+                positions[count++] = (int) keys[i];
+            }
+            // Внутри диапазона ключи упорядочены по значению, а нужен порядок добавления
+            Arrays.sort(positions, 0, count);
+            // Неиндексированные книги добавлены позже всех индексированных
+            for (int position = indexed; position < books.size(); position++) {
+                if (inRange(books.get(position), min, max)) {
+                    positions[count++] = position;
+                }
+            }
+            return Arrays.copyOf(positions, count);
+        }
+
+        private boolean inRange(Book book, int min, int max) {
+            int value = field.applyAsInt(book);
+            return value >= min && value <= max;
+        }
+
+        private void refresh(List<Book> books) {
+            int tail = books.size() - indexed;
+            if (tail <= Math.max(MIN_UNINDEXED_TAIL, indexed / 8)) {
+                return;
+            }
+            long[] rebuilt = new long[books.size()];
+            for (int position = 0; position < rebuilt.length; position++) {
+                rebuilt[position] = key(field.applyAsInt(books.get(position)), position);
+            }
+            Arrays.sort(rebuilt);
+            keys = rebuilt;
+            indexed = rebuilt.length;
+        }
+
+        private int lowerBound(int min) {
+            return search(key(min, 0));
+        }
+
+        private int upperBound(int max) {
+            return max == Integer.MAX_VALUE ? keys.length : search(key(max + 1, 0));
+        }
+
+        /**
+         * @return индекс первого ключа, не меньшего key
+         */
+        private int search(long key) {
+            int low = 0;
+            int high = keys.length;
+            while (low < high) {
+                int middle = (low + high) >>> 1;
+                if (keys[middle] < key) {
+                    low = middle + 1;
+                } else {
+                    high = middle;
+                }
+            }
+            return low;
+        }
+
+        private static long key(int value, int position) {
+            return ((long) value << Integer.SIZE) | position;
+        }
+    }
+}
@@ -0,0 +1,189 @@
+package ru.mentee.power.comparators;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Порядок сортировки книг по цепочке критериев каталога.
+ *
+ * В отличие от цепочки отдельных компараторов, все критерии сравниваются в одном методе:
+ * каждый критерий вычисляется один раз, числовые поля сравниваются без упаковки в Integer.
+ * Если порядок состоит только из числовых критериев (не больше двух), для книги можно заранее
+ * вычислить упакованный ключ {@link #packedKey(Book)}, сравнение ключей через {@link Long#compare}
+ * дает тот же порядок, что и сам компаратор.
+ *
+ * Пример: {@code BookOrdering.by(Criterion.AUTHOR).thenByDescending(Criterion.YEAR_PUBLISHED).build()}
+ */
+public final class BookOrdering implements Comparator<Book> {
+
+    /**
+     * Критерий сортировки
+     */
+    public enum Criterion {
+        /** Название без учета регистра, как в {@link BookCatalog#byTitle()} */
+        TITLE,
+        AUTHOR,
+        YEAR_PUBLISHED,
+        PAGE_COUNT,
+        GENRE;
+
+        boolean isNumeric() {
+            return this == YEAR_PUBLISHED || this == PAGE_COUNT;
+        }
+    }
+
+    private static final int MAX_PACKED_CRITERIA = 2;
+
+    private final Criterion[] criteria;
+    private final boolean[] descending;
+
+    private BookOrdering(Criterion[] criteria, boolean[] descending) {
+        this.criteria = criteria;
+        this.descending = descending;
+    }
+
+    /**
+     * Начинает порядок с критерия по возрастанию
+     * @param criterion первый критерий
+     * @return построитель порядка
+     */
+    public static Builder by(Criterion criterion) {
+        return new Builder().thenBy(criterion);
+    }
+
+    /**
+     * Начинает порядок с критерия по убыванию
+     * @param criterion первый критерий
+     * @return построитель порядка
+     */
+    public static Builder byDescending(Criterion criterion) {
+        return new Builder().thenByDescending(criterion);
+    }
+
+    @Override
+    public int compare(Book o1, Book o2) {
+        for (int i = 0; i < criteria.length; i++) {
+            int result = descending[i] ? compare(criteria[i], o2, o1) : compare(criteria[i], o1, o2);
+            if (result != 0) {
+                return result;
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * @return критерии в порядке приоритета
+     */
+    public List<Criterion> getCriteria() {
+        return List.of(criteria);
+    }
+
+    /**
+     * @param index номер критерия
+     * @return true если критерий сортируется по убыванию
+     */
+    public boolean isDescending(int index) {
+        return descending[index];
+    }
+
+    /**
+     * @return true если для этого порядка доступен {@link #packedKey(Book)}
+     */
+    public boolean hasPackedKey() {
+        if (criteria.length > MAX_PACKED_CRITERIA) {
+            return false;
+        }
+        for (Criterion criterion : criteria) {
+            if (!criterion.isNumeric()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Упаковывает числовые критерии книги в один long: по 32 бита на критерий
+     * @param book книга
+     * @return ключ, порядок ключей по {@link Long#compare} совпадает с порядком книг
+     * @throws IllegalStateException если порядок содержит строковые критерии или больше двух критериев
+     */
+    public long packedKey(Book book) {
+        if (!hasPackedKey()) {
+            throw new IllegalStateException("Упакованный ключ доступен только для одного или двух числовых критериев");
+        }
+        long key = 0;
+        for (int i = 0; i < criteria.length; i++) {
+            int value = criteria[i] == Criterion.YEAR_PUBLISHED ? book.getYearPublished() : book.getPageCount();
+            // Сдвиг знакового бита переводит int в беззнаковое число с тем же порядком
+            long unsigned = Integer.toUnsignedLong(value ^ Integer.MIN_VALUE);
+            key = (key << Integer.SIZE) | (descending[i] ? ~unsigned & 0xFFFFFFFFL : unsigned);
+        }
+        // Ключ из двух критериев занимает все 64 бита, знаковый бит переворачивается для Long.compare
+        return criteria.length == MAX_PACKED_CRITERIA ? key ^ Long.MIN_VALUE : key;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder result = new StringBuilder("BookOrdering[");
+        for (int i = 0; i < criteria.length; i++) {
+            if (i > 0) {
+                result.append(", ");
+            }
+            result.append(criteria[i]).append(descending[i] ? " DESC" : "");
+        }
+        return result.append(']').toString();
+    }
+
+    private static int compare(Criterion criterion, Book o1, Book o2) {
+        return switch (criterion) {
+            case TITLE -> o1.getTitle().compareToIgnoreCase(o2.getTitle());
+            case AUTHOR -> o1.getAuthor().compareTo(o2.getAuthor());
+            case YEAR_PUBLISHED -> Integer.compare(o1.getYearPublished(), o2.getYearPublished());
+            case PAGE_COUNT -> Integer.compare(o1.getPageCount(), o2.getPageCount());
+            case GENRE -> o1.getGenre().compareTo(o2.getGenre());
+        };
+    }
+
+    /**
+     * Построитель порядка сортировки
+     */
+    public static final class Builder {
+        private final List<Criterion> criteria = new ArrayList<>();
+        private final List<Boolean> descending = new ArrayList<>();
+
+        private Builder() {
+        }
+
+        public Builder thenBy(Criterion criterion) {
+            return add(criterion, false);
+        }
+
+        public Builder thenByDescending(Criterion criterion) {
+            return add(criterion, true);
+        }
+
+        /**
+         * @return компаратор, сравнивающий книги по всем добавленным критериям
+         */
+        public BookOrdering build() {
+            boolean[] flags = new boolean[descending.size()];
+            for (int i = 0; i < flags.length; i++) {
+                flags[i] = descending.get(i);
+            }
+            return new BookOrdering(criteria.toArray(new Criterion[0]), flags);
+        }
+
+        private Builder add(Criterion criterion, boolean isDescending) {
+            if (criterion == null) {
+                throw new IllegalArgumentException("Критерий не может быть null");
+            }
+            // Повторный критерий ничего не меняет в порядке, поэтому не добавляется
+            if (!criteria.contains(criterion)) {
+                criteria.add(criterion);
+                descending.add(isDescending);
+            }
+            return this;
+        }
+    }
+}
@@ -0,0 +1,153 @@
+package ru.mentee.power.comparators;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Сортировка книг по заранее вычисленным ключам (decorate-sort-undecorate).
+ *
+ * Для каждого критерия порядка значения книг заменяются рангами: строки сравниваются только
+ * при сортировке различных значений, числа - как примитивы. Ранги всех критериев и позиция книги
+ * в исходном списке упаковываются в один long, массив ключей сортируется как long[], после чего
+ * книги переставляются по позициям из младших битов ключа. Позиция в ключе делает сортировку
+ * устойчивой, поэтому результат совпадает с {@code List.sort(ordering)}.
+ *
+ * Если ранги и позиция не помещаются в 63 бита, используется обычная сортировка компаратором.
+ */
+final class BookSortKeys {
+
+    /** Начиная с этого размера ключи сортируются параллельно */
+    static final int PARALLEL_SORT_THRESHOLD = 1 << 13;
+
+    private static final int KEY_BITS = Long.SIZE - 1;
+
+    private BookSortKeys() {
+    }
+
+    /**
+     * @param books книги в исходном порядке
+     * @param ordering порядок сортировки
+     * @return новый отсортированный список
+     */
+    static List<Book> sort(List<Book> books, BookOrdering ordering) {
+        int size = books.size();
+        List<BookOrdering.Criterion> criteria = ordering.getCriteria();
+        int[][] ranks = new int[criteria.size()][];
+        int[] bits = new int[criteria.size()];
+        int indexBits = bitsFor(size);
+        int totalBits = indexBits;
+        for (int i = 0; i < ranks.length; i++) {
+            ranks[i] = new int[size];
+            int distinct = rank(books, criteria.get(i), ranks[i]);
+            if (ordering.isDescending(i)) {
+                for (int j = 0; j < size; j++) {
+                    ranks[i][j] = distinct - 1 - ranks[i][j];
+                }
+            }
+            bits[i] = bitsFor(distinct);
+            totalBits += bits[i];
+            if (totalBits > KEY_BITS) {
+                List<Book> result = new ArrayList<>(books);
+                result.sort(ordering);
+                return result;
+            }
+        }
+
+        long[] keys = new long[size];
+        for (int j = 0; j < size; j++) {
+            long key = 0;
+            for (int i = 0; i < ranks.length; i++) {
+                key = (key << bits[i]) | ranks[i][j];
+            }
+            keys[j] = (key << indexBits) | j;
+        }
+        if (size >= PARALLEL_SORT_THRESHOLD) {
+            Arrays.parallelSort(keys);
+        } else {
+            Arrays.sort(keys);
+        }
+
+        long indexMask = (1L << indexBits) - 1;
+        List<Book> result = new ArrayList<>(size);
+        for (long key : keys) {
+            result.add(books.get((int) (key & indexMask)));
+        }
+        return result;
+    }
+
+    /**
+     * Заполняет ранги книг по критерию: равные по критерию книги получают одинаковый ранг
+     * @return количество различных рангов
+     */
+    private static int rank(List<Book> books, BookOrdering.Criterion criterion, int[] ranks) {
+        return switch (criterion) {
+            case TITLE -> rankStrings(books, Book::getTitle, String.CASE_INSENSITIVE_ORDER, ranks);
+            case AUTHOR -> rankStrings(books, Book::getAuthor, Comparator.naturalOrder(), ranks);
+            case GENRE -> rankStrings(books, Book::getGenre, Comparator.naturalOrder(), ranks);
+            case YEAR_PUBLISHED, PAGE_COUNT -> {
+                for (int j = 0; j < ranks.length; j++) {
+                    Book book = books.get(j);
+                    ranks[j] = criterion == BookOrdering.Criterion.YEAR_PUBLISHED
+                            ? book.getYearPublished()
+                            : book.getPageCount();
+                }
+                yield rankInts(ranks);
+            }
+        };
+    }
+
+    private static int rankStrings(List<Book> books, Function<Book, String> key,
+                                   Comparator<String> comparator, int[] ranks) {
+        // Сначала значения собираются без повторов, затем то же отображение хранит ранг значения
+        Map<String, Integer> distinctIndex = new HashMap<>();
+        List<String> distinct = new ArrayList<>();
+        for (Book book : books) {
+            String value = key.apply(book);
+            if (distinctIndex.putIfAbsent(value, distinct.size()) == null) {
+                distinct.add(value);
+            }
+        }
+        String[] sorted = distinct.toArray(new String[0]);
+        Arrays.sort(sorted, comparator);
+
+        // Разные строки, равные по компаратору (например, без учета регистра), получают один ранг
+        int rank = -1;
+        for (int i = 0; i < sorted.length; i++) {
+            if (i == 0 || comparator.compare(sorted[i - 1], sorted[i]) != 0) {
+                rank++;
+            }
+            distinctIndex.put(sorted[i], rank);
+        }
+        for (int j = 0; j < ranks.length; j++) {
+            ranks[j] = distinctIndex.get(key.apply(books.get(j)));
+        }
+        return rank + 1;
+    }
+
+    /**
+     * Заменяет значения их рангами среди различных значений массива
+     */
+    private static int rankInts(int[] values) {
+        int[] unique = values.clone();
+        Arrays.sort(unique);
+        int count = 0;
+        for (int i = 0; i < unique.length; i++) {
+            if (i == 0 || unique[i] != unique[count - 1]) {
+                unique[count++] = unique[i];
+            }
+        }
+        for (int j = 0; j < values.length; j++) {
+            values[j] = Arrays.binarySearch(unique, 0, count, values[j]);
+        }
+        return count;
+    }
+
+    private static int bitsFor(int count) {
+        return count <= 1 ? 0 : Integer.SIZE - Integer.numberOfLeadingZeros(count - 1);
+    }
+}
@@ -0,0 +1,107 @@
+package ru.mentee.power.comparators;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Отбор первых k книг по компаратору без сортировки всего каталога.
+ *
+ * Хранит не больше k книг в max-куче: на вершине худшая из отобранных книг, каждая новая книга
+ * сравнивается только с ней. Отбор занимает O(n log k). Равные по компаратору книги упорядочены
+ * по номеру поступления, поэтому результат совпадает с началом устойчивой сортировки.
+ */
+final class BoundedBookHeap {
+    private final Comparator<Book> comparator;
+    private final Book[] books;
+    private final int[] arrivals;
+    private int size;
+    private int arrived;
+
+    /**
+     * @param comparator порядок книг
+     * @param capacity сколько книг отобрать
+     */
+    BoundedBookHeap(Comparator<Book> comparator, int capacity) {
+        this.comparator = comparator;
+        this.books = new Book[capacity];
+        this.arrivals = new int[capacity];
+    }
+
+    /**
+     * Предлагает следующую книгу в порядке обхода каталога
+     * @param book книга
+     */
+    void offer(Book book) {
+        int arrival = arrived++;
+        if (size < books.length) {
+            books[size] = book;
+            arrivals[size] = arrival;
+            siftUp(size++);
+        } else if (size > 0 && comparator.compare(book, books[0]) < 0) {
+            // При равенстве с вершиной новая книга пришла позже и в результат не попадает
+            books[0] = book;
+            arrivals[0] = arrival;
+            siftDown(0, size);
+        }
+    }
+
+    /**
+     * Упорядочивает отобранные книги на месте (пирамидальная сортировка кучи)
+     * @return отобранные книги по порядку
+     */
+    List<Book> toSortedList() {
+        for (int end = size - 1; end > 0; end--) {
+            swap(0, end);
+            siftDown(0, end);
+        }
+        List<Book> result = new ArrayList<>(Arrays.asList(books).subList(0, size));
+        size = 0;
+        return result;
+    }
+
+    private void siftUp(int index) {
+        while (index > 0) {
+            int parent = (index - 1) >>> 1;
+            if (compare(index, parent) <= 0) {
+                return;
+            }
+            swap(index, parent);
+            index = parent;
+        }
+    }
+
+    private void siftDown(int index, int end) {
+        while (true) {
+            int largest = index;
+            int left = 2 * index + 1;
+            int right = left + 1;
+            if (left < end && compare(left, largest) > 0) {
+                largest = left;
+            }
+            if (right < end && compare(right, largest) > 0) {
+                largest = right;
+            }
+            if (largest == index) {
+                return;
+            }
+            swap(index, largest);
+            index = largest;
+        }
+    }
+
+    private int compare(int i, int j) {
+        int result = comparator.compare(books[i], books[j]);
+        return result != 0 ? result : Integer.compare(arrivals[i], arrivals[j]);
+    }
+
+    private void swap(int i, int j) {
+        Book book = books[i];
+        books[i] = books[j];
+        books[j] = book;
+        int arrival = arrivals[i];
+        arrivals[i] = arrivals[j];
+        arrivals[j] = arrival;
+    }
+}
@@ -0,0 +1,209 @@
+package ru.mentee.power.comparators;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+
+/**
+ * Каталог книг, хранящий поля книг по столбцам.
+ *
+ * Год издания и количество страниц лежат в массивах int, автор и жанр заменены номерами
+ * в словарях, названия хранятся отдельным массивом. Фильтры по диапазону и по равенству
+ * сначала собирают номера подошедших книг проходом только по нужному столбцу примитивов,
+ * а затем отдельным проходом создают объекты {@link Book} лишь для этих номеров.
+ * Поэтому возвращаемые книги - новые объекты с теми же полями, а не те, что были добавлены.
+ */
+public class ColumnarBookCatalog {
+    private static final int INITIAL_CAPACITY = 16;
+
+    private String[] titles = new String[INITIAL_CAPACITY];
+    private int[] years = new int[INITIAL_CAPACITY];
+    private int[] pageCounts = new int[INITIAL_CAPACITY];
+    private int[] authorIds = new int[INITIAL_CAPACITY];
+    private int[] genreIds = new int[INITIAL_CAPACITY];
+    private int size;
+
+    private final Dictionary authors = new Dictionary();
+    private final Dictionary genres = new Dictionary();
+
+    /**
+     * Добавляет книгу в каталог
+     * @param book книга для добавления
+     */
+    public void addBook(Book book) {
+        if (book == null) {
+            throw new IllegalArgumentException("Книга не может быть null");
+        }
+        if (size == years.length) {
+            grow();
+        }
+        titles[size] = book.getTitle();
+        years[size] = book.getYearPublished();
+        pageCounts[size] = book.getPageCount();
+        authorIds[size] = authors.idOf(book.getAuthor());
+        genreIds[size] = genres.idOf(book.getGenre());
+        size++;
+    }
+
+    /**
+     * @return количество книг в каталоге
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @param index номер книги в порядке добавления
+     * @return книга
+     */
+    public Book getBook(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Нет книги с номером " + index);
+        }
+        return materialize(index);
+    }
+
+    /**
+     * @return список всех книг в порядке добавления
+     */
+    public List<Book> getAllBooks() {
+        List<Book> result = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            result.add(materialize(i));
+        }
+        return result;
+    }
+
+    /**
+     * Книги, изданные в указанный период
+     * @param fromYear первый год (включительно)
+     * @param toYear последний год (включительно)
+     * @return новый список книг в порядке добавления
+     */
+    public List<Book> filterByYear(int fromYear, int toYear) {
+        return filterByRange(years, fromYear, toYear);
+    }
+
+    /**
+     * Книги с количеством страниц в указанных границах
+     * @param minPages минимальное количество страниц (включительно)
+     * @param maxPages максимальное количество страниц (включительно)
+     * @return новый список книг в порядке добавления
+     */
+    public List<Book> filterByPageCount(int minPages, int maxPages) {
+        return filterByRange(pageCounts, minPages, maxPages);
+    }
+
+    /**
+     * @param author автор
+     * @return новый список книг автора в порядке добавления
+     */
+    public List<Book> filterByAuthor(String author) {
+        return filterById(authorIds, authors.find(author));
+    }
+
+    /**
+     * @param genre жанр
+     * @return новый список книг жанра в порядке добавления
+     */
+    public List<Book> filterByGenre(String genre) {
+        return filterById(genreIds, genres.find(genre));
+    }
+
+    /**
+     * Фильтрует книги по произвольному предикату. Каждая книга при этом создается заново,
+     * поэтому для условий по году, страницам, автору и жанру быстрее отдельные методы
+     * @param predicate условие фильтрации
+     * @return новый список книг, удовлетворяющих условию
+     */
+    public List<Book> filterBooks(Predicate<Book> predicate) {
+        if (predicate == null) {
+            throw new IllegalArgumentException("Предикат не может быть null");
+        }
+        List<Book> result = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            Book book = materialize(i);
+            if (predicate.test(book)) {
+                result.add(book);
+            }
+        }
+        return result;
+    }
+
+    // Первый проход читает только столбец примитивов и без ветвлений записывает номера подошедших книг:
+    // номер пишется всегда, а счетчик сдвигается только при совпадении. Книги создаются вторым проходом
+    private List<Book> filterByRange(int[] column, int from, int to) {
+        int[] matches = new int[size];
+        int count = 0;
+        for (int i = 0; i < size; i++) {
+            int value = column[i];
+            matches[count] = i;
+            count += (value >= from & value <= to) ? 1 : 0;
+        }
+        return materialize(matches, count);
+    }
+
+    private List<Book> filterById(int[] column, int id) {
+        if (id < 0) {
+            return new ArrayList<>();
+        }
+        int[] matches = new int[size];
+        int count = 0;
+        for (int i = 0; i < size; i++) {
+            matches[count] = i;
+            count += column[i] == id ? 1 : 0;
+        }
+        return materialize(matches, count);
+    }
+
+    private List<Book> materialize(int[] indexes, int count) {
+        List<Book> result = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            result.add(materialize(indexes[i]));
+        }
+        return result;
+    }
+
+    private Book materialize(int index) {
+        return new Book(titles[index], authors.valueOf(authorIds[index]), years[index], pageCounts[index],
+                genres.valueOf(genreIds[index]));
+    }
+
+    private void grow() {
+        int capacity = years.length * 2;
+        titles = Arrays.copyOf(titles, capacity);
+        years = Arrays.copyOf(years, capacity);
+        pageCounts = Arrays.copyOf(pageCounts, capacity);
+        authorIds = Arrays.copyOf(authorIds, capacity);
+        genreIds = Arrays.copyOf(genreIds, capacity);
+    }
+
+    /**
+     * Словарь строк: каждой различной строке присваивается номер по порядку появления
+     */
+    private static final class Dictionary {
+        private final Map<String, Integer> ids = new HashMap<>();
+        private final List<String> values = new ArrayList<>();
+
+        int idOf(String value) {
+            Integer id = ids.get(value);
+            if (id == null) {
+                id = values.size();
+                ids.put(value, id);
+                values.add(value);
+            }
+            return id;
+        }
+
+        int find(String value) {
+            return ids.getOrDefault(value, -1);
+        }
+
+        String valueOf(int id) {
+            return values.get(id);
+        }
+    }
+}
@@ -0,0 +1,272 @@
+package ru.mentee.power.comparators;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Внешняя сортировка файла с книгами, который не помещается в память.
+ *
+ * Книги читаются порциями (runs) не больше заданного размера, каждая порция сортируется
+ * параллельно через {@link Arrays#parallelSort} и сбрасывается во временный файл. Затем порции
+ * сливаются k-путевым слиянием через {@link PriorityQueue}. При равенстве книг выигрывает порция
+ * с меньшим номером, поэтому результат совпадает с устойчивой сортировкой всего файла.
+ * Если порций больше {@link #MAX_MERGE_WIDTH}, соседние порции сначала сливаются группами.
+ *
+ * Формат файла: число {@link #MAGIC}, затем записи книг до конца файла. Запись - байт 1,
+ * название, автор, год, количество страниц, жанр; строки записываются как флаг наличия
+ * и {@link DataOutput#writeUTF(String)}.
+ */
+public class ExternalBookSorter {
+    static final int MAGIC = 0x424B5352; // "BKSR"
+    static final int MAX_MERGE_WIDTH = 64;
+
+    private static final int RECORD = 1;
+    private static final int BUFFER_SIZE = 1 << 16;
+    private static final int MERGE_BUFFER_SIZE = 1 << 13;
+
+    private final int maxBooksInMemory;
+    private final Path tempDirectory;
+
+    /**
+     * @param maxBooksInMemory максимальное количество книг в одной порции
+     */
+    public ExternalBookSorter(int maxBooksInMemory) {
+        this(maxBooksInMemory, null);
+    }
+
+    /**
+     * @param maxBooksInMemory максимальное количество книг в одной порции
+     * @param tempDirectory каталог для временных файлов или null для системного
+     */
+    public ExternalBookSorter(int maxBooksInMemory, Path tempDirectory) {
+        if (maxBooksInMemory < 1) {
+            throw new IllegalArgumentException("Размер порции должен быть положительным");
+        }
+        this.maxBooksInMemory = maxBooksInMemory;
+        this.tempDirectory = tempDirectory;
+    }
+
+    /**
+     * Сортирует книги из файла и записывает результат в другой файл
+     * @param input исходный файл
+     * @param output файл для результата
+     * @param comparator компаратор для сортировки
+     * @throws IOException при ошибке чтения, записи или неверном формате файла
+     */
+    public void sort(Path input, Path output, Comparator<Book> comparator) throws IOException {
+        if (comparator == null) {
+            throw new IllegalArgumentException("Компаратор не может быть null");
+        }
+        // Все созданные временные файлы удаляются в конце, в том числе при ошибке
+        List<Path> tempFiles = new ArrayList<>();
+        List<Path> runs = new ArrayList<>();
+        try {
+            try (DataInputStream in = openInput(input, BUFFER_SIZE)) {
+                Book[] buffer = new Book[maxBooksInMemory];
+                int count;
+                while ((count = readRun(in, buffer)) > 0) {
+                    Arrays.parallelSort(buffer, 0, count, comparator);
+                    Path run = createRun(tempFiles);
+                    runs.add(run);
+                    try (DataOutputStream out = openOutput(run)) {
+                        for (int i = 0; i < count; i++) {
+                            writeBook(out, buffer[i]);
+                        }
+                    }
+                    Arrays.fill(buffer, 0, count, null);
+                }
+            }
+
+            while (runs.size() > MAX_MERGE_WIDTH) {
+                List<Path> merged = new ArrayList<>();
+                for (int from = 0; from < runs.size(); from += MAX_MERGE_WIDTH) {
+                    List<Path> group = runs.subList(from, Math.min(from + MAX_MERGE_WIDTH, runs.size()));
+                    Path run = createRun(tempFiles);
+                    merged.add(run);
+                    merge(group, run, comparator);
+                    for (Path mergedRun : group) {
+                        Files.deleteIfExists(mergedRun);
+                    }
+                }
+                runs = merged;
+            }
+            merge(runs, output, comparator);
+        } finally {
+            for (Path file : tempFiles) {
+                Files.deleteIfExists(file);
+            }
+        }
+    }
+
+    /**
+     * Записывает книги в файл в формате сортировщика
+     * @param books книги
+     * @param file файл
+     * @throws IOException при ошибке записи
+     */
+    public static void writeBooks(Iterable<Book> books, Path file) throws IOException {
+        try (DataOutputStream out = openOutput(file)) {
+            for (Book book : books) {
+                writeBook(out, book);
+            }
+        }
+    }
+
+    /**
+     * Читает все книги из файла в формате сортировщика
+     * @param file файл
+     * @return книги в порядке записи
+     * @throws IOException при ошибке чтения или неверном формате файла
+     */
+    public static List<Book> readBooks(Path file) throws IOException {
+        List<Book> books = new ArrayList<>();
+        try (DataInputStream in = openInput(file, BUFFER_SIZE)) {
+            Book book;
+            while ((book = readBook(in)) != null) {
+                books.add(book);
+            }
+        }
+        return books;
+    }
+
+    private void merge(List<Path> runs, Path output, Comparator<Book> comparator) throws IOException {
+        PriorityQueue<RunCursor> queue = new PriorityQueue<>(Math.max(1, runs.size()),
+                (a, b) -> {
+                    int result = comparator.compare(a.current, b.current);
+                    return result != 0 ? result : Integer.compare(a.index, b.index);
+                });
+        List<DataInputStream> inputs = new ArrayList<>(runs.size());
+        try (DataOutputStream out = openOutput(output)) {
+            for (int i = 0; i < runs.size(); i++) {
+                DataInputStream in = openInput(runs.get(i), MERGE_BUFFER_SIZE);
+                inputs.add(in);
+                RunCursor cursor = new RunCursor(i, in);
+                if (cursor.advance()) {
+                    queue.add(cursor);
+                }
+            }
+            while (!queue.isEmpty()) {
+                RunCursor cursor = queue.poll();
+                writeBook(out, cursor.current);
+                if (cursor.advance()) {
+                    queue.add(cursor);
+                }
+            }
+        } finally {
+            for (DataInputStream in : inputs) {
+                in.close();
+            }
+        }
+    }
+
+    private static int readRun(DataInputStream in, Book[] buffer) throws IOException {
+        int count = 0;
+        Book book;
+        while (count < buffer.length && (book = readBook(in)) != null) {
+            buffer[count++] = book;
+        }
+        return count;
+    }
+
+    private Path createRun(List<Path> tempFiles) throws IOException {
+        Path run = tempDirectory == null
+                ? Files.createTempFile("books-run-", ".bin")
+                : Files.createTempFile(tempDirectory, "books-run-", ".bin");
+        tempFiles.add(run);
+        return run;
+    }
+
+    private static DataOutputStream openOutput(Path file) throws IOException {
+        DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file), BUFFER_SIZE));
+        out.writeInt(MAGIC);
+        return out;
+    }
+
+    private static DataInputStream openInput(Path file, int bufferSize) throws IOException {
+        DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file), bufferSize));
+        boolean valid = false;
+        try {
+            valid = in.readInt() == MAGIC;
+        } catch (EOFException e) {
+            // Файл короче заголовка
+        } finally {
+            if (!valid) {
+                in.close();
+            }
+        }
+        if (!valid) {
+            throw new IOException("Файл не является файлом книг: " + file);
+        }
+        return in;
+    }
+
+    static void writeBook(DataOutput out, Book book) throws IOException {
+        out.writeByte(RECORD);
+        writeString(out, book.getTitle());
+        writeString(out, book.getAuthor());
+        out.writeInt(book.getYearPublished());
+        out.writeInt(book.getPageCount());
+        writeString(out, book.getGenre());
+    }
+
+    /**
+     * @return следующая книга или null в конце файла
+     */
+    static Book readBook(DataInputStream in) throws IOException {
+        int marker = in.read();
+        if (marker == -1) {
+            return null;
+        }
+        if (marker != RECORD) {
+            throw new IOException("Неверный формат записи книги");
+        }
+        String title = readString(in);
+        String author = readString(in);
+        int yearPublished = in.readInt();
+        int pageCount = in.readInt();
+        return new Book(title, author, yearPublished, pageCount, readString(in));
+    }
+
+    private static void writeString(DataOutput out, String value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeUTF(value);
+        }
+    }
+
+    private static String readString(DataInput in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+
+    /**
+     * Текущая книга одной порции при слиянии
+     */
+    private static final class RunCursor {
+        private final int index;
+        private final DataInputStream in;
+        private Book current;
+
+        RunCursor(int index, DataInputStream in) {
+            this.index = index;
+            this.in = in;
+        }
+
+        boolean advance() throws IOException {
+            current = readBook(in);
+            return current != null;
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package ru.mentee.power.comparators;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Ограниченный потокобезопасный пул строк.
+ *
+ * Для каждой различной строки хранится один канонический экземпляр, {@link #intern(String)}
+ * возвращает его вместо равной строки. Строки из одного пула можно сравнивать по ссылке.
+ * Когда в пуле {@code maxSize} строк, новые строки в него не попадают и возвращаются как есть,
+ * уже сохраненные строки не вытесняются.
+ *
+ * Сэкономленная память оценивается по размеру каждой замененной копии: заголовок String,
+ * заголовок массива и по байту на символ для Latin-1 (по два для остальных строк).
+ */
+public class StringPool {
+    /** Размер пула по умолчанию */
+    public static final int DEFAULT_MAX_SIZE = 1 << 16;
+
+    // Оценка для 64-битной JVM со сжатыми указателями
+    private static final int STRING_OVERHEAD = 24;
+    private static final int ARRAY_OVERHEAD = 16;
+
+    private final int maxSize;
+    private final ConcurrentMap<String, String> strings = new ConcurrentHashMap<>();
+    private final AtomicInteger size = new AtomicInteger();
+    private final LongAdder hitCount = new LongAdder();
+    private final LongAdder missCount = new LongAdder();
+    private final LongAdder rejectedCount = new LongAdder();
+    private final LongAdder savedBytes = new LongAdder();
+
+    /**
+     * Снимок статистики пула
+     * @param hitCount сколько раз возвращена уже сохраненная строка
+     * @param missCount сколько строк добавлено в пул
+     * @param rejectedCount сколько строк не добавлено, потому что пул заполнен
+     * @param size количество строк в пуле
+     * @param savedBytes оценка памяти, освобожденной заменой копий на канонические строки
+     */
+    public record Stats(long hitCount, long missCount, long rejectedCount, int size, long savedBytes) {
+    }
+
+    /**
+     * Создает пул размера {@link #DEFAULT_MAX_SIZE}
+     */
+    public StringPool() {
+        this(DEFAULT_MAX_SIZE);
+    }
+
+    /**
+     * @param maxSize максимальное количество строк в пуле
+     */
+    public StringPool(int maxSize) {
+        if (maxSize < 1) {
+            throw new IllegalArgumentException("Размер пула должен быть положительным");
+        }
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * Возвращает канонический экземпляр строки
+     * @param value строка (null возвращается как есть)
+     * @return строка из пула, равная value, или сама value, если пул заполнен
+     */
+    public String intern(String value) {
+        if (value == null) {
+            return null;
+        }
+        String pooled = strings.get(value);
+        if (pooled != null) {
+            return hit(pooled, value);
+        }
+        // Место в пуле резервируется до вставки, поэтому размер не превышает maxSize
+        if (size.incrementAndGet() > maxSize) {
+            size.decrementAndGet();
+            rejectedCount.increment();
+            return value;
+        }
+        pooled = strings.putIfAbsent(value, value);
+        if (pooled != null) {
+            size.decrementAndGet();
+            return hit(pooled, value);
+        }
+        missCount.increment();
+        return value;
+    }
+
+    /**
+     * @return количество строк в пуле
+     */
+    public int size() {
+        return size.get();
+    }
+
+    /**
+     * @return снимок статистики
+     */
+    public Stats getStats() {
+        return new Stats(hitCount.sum(), missCount.sum(), rejectedCount.sum(), size.get(), savedBytes.sum());
+    }
+
+    private String hit(String pooled, String value) {
+        hitCount.increment();
+        if (pooled != value) {
+            savedBytes.add(estimateSize(value));
+        }
+        return pooled;
+    }
+
+    private static long estimateSize(String value) {
+        int bytesPerChar = 1;
+        for (int i = 0; i < value.length(); i++) {
+            if (value.charAt(i) > 0xFF) {
+                bytesPerChar = 2;
+                break;
+            }
+        }
+        long arraySize = ARRAY_OVERHEAD + (long) value.length() * bytesPerChar;
+        // Объекты выравниваются по 8 байт
+        return STRING_OVERHEAD + ((arraySize + 7) & ~7L);
+    }
+}
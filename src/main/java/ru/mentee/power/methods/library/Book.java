@@ -1,10 +1,24 @@
 package ru.mentee.power.methods.library;
 
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+
 public class Book {
+    private static final VarHandle AVAILABLE;
+
+    static {
+        try {
+            AVAILABLE = MethodHandles.lookup().findVarHandle(Book.class, "available", boolean.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
     private String title;
     private String author;
     private int year;
-    private boolean available;
+    // volatile: доступность может меняться из разных потоков (см. ConcurrentLibrary)
+    private volatile boolean available;
 
     /**
      * Создает новую книгу
@@ -44,6 +58,16 @@ public class Book {
         this.available = available;
     }
 
+    /**
+     * Атомарно меняет доступность, если текущее значение равно ожидаемому
+     * @param expected ожидаемая доступность
+     * @param available новая доступность
+     * @return true, если значение изменено
+     */
+    boolean compareAndSetAvailable(boolean expected, boolean available) {
+        return AVAILABLE.compareAndSet(this, expected, available);
+    }
+
     /**
      * @return Строковое представление информации о книге
      */
@@ -0,0 +1,105 @@
+package ru.mentee.power.methods.library;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Библиотека для одновременной работы нескольких терминалов выдачи.
+ *
+ * Доступность книги меняется атомарной операцией compare-and-set, поэтому одну книгу
+ * нельзя выдать дважды, даже если ее одновременно запрашивают несколько потоков.
+ * Блокировок нет: книги по названию хранятся в {@link ConcurrentHashMap}, книги
+ * с одинаковым названием - в {@link CopyOnWriteArrayList}, добавленная книга сразу видна
+ * всем потокам. Списки доступных и выданных книг - снимки на момент обхода.
+ *
+ * Книгу не следует одновременно добавлять в {@link Library}: обычная библиотека
+ * не рассчитана на изменения из нескольких потоков.
+ */
+public class ConcurrentLibrary {
+    private final Queue<Book> books = new ConcurrentLinkedQueue<>();
+    private final ConcurrentMap<String, List<Book>> booksByTitle = new ConcurrentHashMap<>();
+
+    /**
+     * Добавляет книгу в библиотеку
+     * @param book книга для добавления
+     * @return true, книга добавлена
+     */
+    public boolean addBook(Book book) {
+        if (book == null || book.getTitle() == null) {
+            throw new IllegalArgumentException("Книга и ее название не могут быть null");
+        }
+        booksByTitle.computeIfAbsent(Library.titleKey(book.getTitle()), key -> new CopyOnWriteArrayList<>()).add(book);
+        books.add(book);
+        return true;
+    }
+
+    /**
+     * Ищет книгу по названию
+     * @param title название книги
+     * @return первая добавленная книга с таким названием или null, если книга не найдена
+     */
+    public Book findBookByTitle(String title) {
+        List<Book> sameTitle = title == null ? null : booksByTitle.get(Library.titleKey(title));
+        return sameTitle == null ? null : sameTitle.get(0);
+    }
+
+    /**
+     * Выдает первую доступную книгу с таким названием
+     * @param title название книги
+     * @return true, если книга выдана этим вызовом, false, если книга не найдена или все экземпляры выданы
+     */
+    public boolean checkoutBook(String title) {
+        return changeAvailability(title, true);
+    }
+
+    /**
+     * Возвращает первую выданную книгу с таким названием
+     * @param title название книги
+     * @return true, если книга возвращена этим вызовом, false, если книга не найдена или уже доступна
+     */
+    public boolean returnBook(String title) {
+        return changeAvailability(title, false);
+    }
+
+    /**
+     * @return массив доступных книг
+     */
+    public Book[] listAvailableBooks() {
+        return listBooks(true);
+    }
+
+    /**
+     * @return массив выданных книг
+     */
+    public Book[] listCheckedOutBooks() {
+        return listBooks(false);
+    }
+
+    private boolean changeAvailability(String title, boolean available) {
+        List<Book> sameTitle = title == null ? null : booksByTitle.get(Library.titleKey(title));
+        if (sameTitle == null) {
+            return false;
+        }
+        for (Book book : sameTitle) {
+            if (book.compareAndSetAvailable(available, !available)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private Book[] listBooks(boolean available) {
+        List<Book> result = new ArrayList<>();
+        for (Book book : books) {
+            if (book.isAvailable() == available) {
+                result.add(book);
+            }
+        }
+        return result.toArray(new Book[0]);
+    }
+}
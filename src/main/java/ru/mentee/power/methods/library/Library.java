@@ -1,9 +1,25 @@
 package ru.mentee.power.methods.library;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
 public class Library {
-    // обратите внимание: books — это массив, а не список
+    private static final int INITIAL_CAPACITY = 16;
+
+    // обратите внимание: books — это массив, а не список.
+    // Первые availableCount книг доступны, остальные до bookCount выданы
+    // (после прямых вызовов Book.setAvailable разбиение восстанавливается перед выдачей списков)
     private Book[] books;
     private int bookCount;
+    private int availableCount;
+    private final Map<Book, Integer> positions = new IdentityHashMap<>();
+    private final boolean growable;
+    // Книги по названию без учета регистра, книги с одинаковым названием - в порядке добавления
+    private final Map<String, List<Book>> booksByTitle = new HashMap<>();
 
     /**
      * Создает новую библиотеку с заданной вместимостью
@@ -12,6 +28,16 @@ public class Library {
     public Library(int capacity) {
         this.books = new Book[capacity];
         this.bookCount = 0;
+        this.growable = false;
+    }
+
+    /**
+     * Создает библиотеку без ограничения вместимости: массив книг расширяется по мере добавления
+     */
+    public Library() {
+        this.books = new Book[INITIAL_CAPACITY];
+        this.bookCount = 0;
+        this.growable = true;
     }
 
     /**
@@ -21,9 +47,18 @@ public class Library {
      */
     public boolean addBook(Book book) {
         if (bookCount >= books.length) {
-            return false; // библиотека заполнена
+            if (!growable) {
+                return false; // библиотека заполнена
+            }
+            books = Arrays.copyOf(books, Math.max(INITIAL_CAPACITY, books.length * 2));
+        }
+        books[bookCount] = book;
+        positions.put(book, bookCount);
+        bookCount++;
+        if (book.isAvailable()) {
+            swap(bookCount - 1, availableCount++);
         }
-        books[bookCount++] = book;
+        booksByTitle.computeIfAbsent(titleKey(book.getTitle()), key -> new ArrayList<>(1)).add(book);
         return true;
     }
 
@@ -33,79 +68,136 @@ public class Library {
      * @return найденная книга или null, если книга не найдена
      */
     public Book findBookByTitle(String title) {
-        for (int i = 0; i < bookCount; i++) {
-            if (books[i].getTitle().equalsIgnoreCase(title)) {
-                return books[i];
-            }
-        }
-        return null;
+        List<Book> sameTitle = booksByTitle.get(titleKey(title));
+        return sameTitle == null ? null : sameTitle.get(0);
     }
 
     /**
-     * Выдает книгу читателю
+     * Выдает книгу читателю.
+     * Если книг с таким названием несколько, выдается первая доступная
      * @param title название книги
      * @return true, если книга успешно выдана, false, если книга не найдена или уже выдана
      */
     public boolean checkoutBook(String title) {
-        Book book = findBookByTitle(title);
-        if (book != null && book.isAvailable()) {
+        Book book = findBookWithStatus(title, true);
+        if (book != null) {
             book.setAvailable(false);
+            updatePartition(book);
             return true;
         }
         return false;
     }
 
     /**
-     * Возвращает книгу в библиотеку
+     * Возвращает книгу в библиотеку.
+     * Если книг с таким названием несколько, возвращается первая выданная
      * @param title название книги
      * @return true, если книга успешно возвращена, false, если книга не найдена или уже доступна
      */
     public boolean returnBook(String title) {
-        Book book = findBookByTitle(title);
-        if (book != null && !book.isAvailable()) {
+        Book book = findBookWithStatus(title, false);
+        if (book != null) {
             book.setAvailable(true);
+            updatePartition(book);
             return true;
         }
         return false;
     }
 
+    private Book findBookWithStatus(String title, boolean available) {
+        List<Book> sameTitle = booksByTitle.get(titleKey(title));
+        if (sameTitle == null) {
+            return null;
+        }
+        for (Book book : sameTitle) {
+            if (book.isAvailable() == available) {
+                return book;
+            }
+        }
+        return null;
+    }
+
     /**
-     * Возвращает массив доступных книг
-     * @return массив доступных книг
+     * Ключ названия: строки, равные по equalsIgnoreCase, дают один ключ
      */
-    public Book[] listAvailableBooks() {
-        int count = 0;
-        for (int i = 0; i < bookCount; i++) {
-            if (books[i].isAvailable()) count++;
+    static String titleKey(String title) {
+        if (title == null) {
+            return null;
         }
-
-        Book[] result = new Book[count];
-        int index = 0;
-        for (int i = 0; i < bookCount; i++) {
-            if (books[i].isAvailable()) {
-                result[index++] = books[i];
-            }
+        StringBuilder key = new StringBuilder(title.length());
+        for (int i = 0; i < title.length(); i++) {
+            key.append(Character.toLowerCase(Character.toUpperCase(title.charAt(i))));
         }
+        return key.toString();
+    }
+
+    /**
+     * Возвращает массив доступных книг.
+     * Порядок книг в массиве может не совпадать с порядком добавления
+     * @return массив доступных книг
+     */
+    public Book[] listAvailableBooks() {
+        repartition();
+        Book[] result = new Book[availableCount];
+        System.arraycopy(books, 0, result, 0, availableCount);
         return result;
     }
 
     /**
-     * Возвращает массив выданных книг
+     * Возвращает массив выданных книг.
+     * Порядок книг в массиве может не совпадать с порядком добавления
      * @return массив выданных книг
      */
     public Book[] listCheckedOutBooks() {
-        int count = 0;
-        for (int i = 0; i < bookCount; i++) {
-            if (!books[i].isAvailable()) count++;
+        repartition();
+        Book[] result = new Book[bookCount - availableCount];
+        System.arraycopy(books, availableCount, result, 0, result.length);
+        return result;
+    }
+
+    /**
+     * Переносит книгу на границу между доступными и выданными книгами после выдачи или возврата
+     */
+    private void updatePartition(Book book) {
+        int position = positions.get(book);
+        if (book.isAvailable() && position >= availableCount) {
+            swap(position, availableCount++);
+        } else if (!book.isAvailable() && position < availableCount) {
+            swap(position, --availableCount);
         }
+    }
 
-        Book[] result = new Book[count];
-        int index = 0;
-        for (int i = 0; i < bookCount; i++) {
-            if (!books[i].isAvailable()) {
-                result[index++] = books[i];
+    /**
+     * Восстанавливает разбиение перед выдачей списков: доступность книги могли изменить
+     * напрямую через {@link Book#setAvailable(boolean)}. Если разбиение не нарушено,
+     * книги только просматриваются без перестановок
+     */
+    private void repartition() {
+        int low = 0;
+        int high = bookCount - 1;
+        while (true) {
+            while (low <= high && books[low].isAvailable()) {
+                low++;
+            }
+            while (low <= high && !books[high].isAvailable()) {
+                high--;
             }
+            if (low >= high) {
+                break;
+            }
+            swap(low, high);
         }
-        return result;
+        availableCount = low;
+    }
+
+    private void swap(int i, int j) {
+        if (i == j) {
+            return;
+        }
+        Book book = books[i];
+        books[i] = books[j];
+        books[j] = book;
+        positions.put(books[i], i);
+        positions.put(books[j], j);
     }
 }
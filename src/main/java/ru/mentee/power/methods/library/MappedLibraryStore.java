@@ -0,0 +1,367 @@
+package ru.mentee.power.methods.library;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Библиотека, хранящая книги в отображенных в память файлах (memory-mapped), а не в куче.
+ *
+ * Файл записей содержит заголовок и записи фиксированной длины {@link #RECORD_SIZE}:
+ * смещение названия, смещение автора, год издания и байт доступности. Названия и авторы
+ * лежат в отдельном файле строк ({@code <файл>.strings}) как длина и байты UTF-8.
+ * Выдача и возврат меняют байт доступности прямо в отображенном файле, поэтому состояние
+ * сохраняется между перезапусками: при открытии существующего файла книги и их доступность
+ * восстанавливаются.
+ *
+ * В куче хранится только индекс по названию без учета регистра: открытая адресация
+ * в массивах int (хеш названия и номер записи). Книги с одинаковым названием находятся
+ * в порядке добавления. Возвращаемые объекты {@link Book} - копии записей; доступность
+ * меняется только через {@link #checkoutBook(String)} и {@link #returnBook(String)}.
+ * Класс не потокобезопасен.
+ */
+public final class MappedLibraryStore implements Closeable {
+    static final int MAGIC = 0x4D4C4253; // "MLBS"
+    static final int VERSION = 1;
+    static final int HEADER_SIZE = 16;
+    static final int RECORD_SIZE = 16;
+
+    // Смещения в заголовке
+    private static final int COUNT_OFFSET = 8;
+    private static final int STRINGS_END_OFFSET = 8;
+
+    // Смещения в записи
+    private static final int TITLE_OFFSET = 0;
+    private static final int AUTHOR_OFFSET = 4;
+    private static final int YEAR_OFFSET = 8;
+    private static final int AVAILABLE_OFFSET = 12;
+
+    private static final int INITIAL_RECORDS = 1024;
+    private static final int INITIAL_STRINGS_SIZE = 1 << 16;
+    private static final int NO_STRING = -1;
+
+    private final FileChannel recordChannel;
+    private final FileChannel stringChannel;
+    private MappedByteBuffer records;
+    private MappedByteBuffer strings;
+    private int count;
+    private int stringsEnd;
+
+    // Индекс по названию: номер записи + 1 (0 - пустая ячейка) и хеш ключа названия
+    private int[] slots;
+    private int[] slotHashes;
+
+    /**
+     * Открывает хранилище; если файл уже существует, книги загружаются из него
+     * @param file файл записей (рядом создается файл строк)
+     * @throws IOException если файл не удалось открыть или он имеет неверный формат
+     */
+    public MappedLibraryStore(Path file) throws IOException {
+        Path stringFile = file.resolveSibling(file.getFileName() + ".strings");
+        boolean existing = Files.exists(file) && Files.size(file) > 0;
+        recordChannel = FileChannel.open(file,
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            // Для существующего хранилища файл строк должен уже быть
+            stringChannel = existing
+                    ? FileChannel.open(stringFile, StandardOpenOption.READ, StandardOpenOption.WRITE)
+                    : FileChannel.open(stringFile,
+                            StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        } catch (IOException e) {
+            recordChannel.close();
+            throw e;
+        }
+        try {
+            if (existing) {
+                load(file);
+            } else {
+                records = map(recordChannel, HEADER_SIZE + (long) INITIAL_RECORDS * RECORD_SIZE);
+                strings = map(stringChannel, INITIAL_STRINGS_SIZE);
+                records.putInt(0, MAGIC).putInt(4, VERSION).putInt(COUNT_OFFSET, 0);
+                strings.putInt(0, MAGIC).putInt(4, VERSION).putInt(STRINGS_END_OFFSET, HEADER_SIZE);
+                stringsEnd = HEADER_SIZE;
+            }
+            rebuildIndex(Math.max(INITIAL_RECORDS, count));
+        } catch (IOException | RuntimeException e) {
+            close();
+            throw e;
+        }
+    }
+
+    /**
+     * Добавляет книгу в хранилище
+     * @param book книга для добавления
+     * @return true, книга добавлена
+     * @throws IllegalStateException если файл записей или строк достиг предельного размера
+     */
+    public boolean addBook(Book book) {
+        if (book == null || book.getTitle() == null) {
+            throw new IllegalArgumentException("Книга и ее название не могут быть null");
+        }
+        int titleOffset = putString(book.getTitle());
+        int authorOffset = putString(book.getAuthor());
+        ensureRecordCapacity(recordOffset(count) + RECORD_SIZE);
+        int position = recordPosition(count);
+        records.putInt(position + TITLE_OFFSET, titleOffset)
+                .putInt(position + AUTHOR_OFFSET, authorOffset)
+                .putInt(position + YEAR_OFFSET, book.getYear())
+                .put(position + AVAILABLE_OFFSET, (byte) (book.isAvailable() ? 1 : 0));
+        // Счетчик записывается последним: недописанная запись не будет прочитана после сбоя
+        count++;
+        records.putInt(COUNT_OFFSET, count);
+
+        if (count * 2 > slots.length) {
+            rebuildIndex(slots.length);
+        } else {
+            insertIntoIndex(count - 1, hash(Library.titleKey(book.getTitle())));
+        }
+        return true;
+    }
+
+    /**
+     * Ищет книгу по названию
+     * @param title название книги
+     * @return копия первой добавленной книги с таким названием или null, если книга не найдена
+     */
+    public Book findBookByTitle(String title) {
+        int record = findRecord(title, -1);
+        return record < 0 ? null : readBook(record);
+    }
+
+    /**
+     * Выдает первую доступную книгу с таким названием
+     * @param title название книги
+     * @return true, если книга выдана, false, если книга не найдена или все экземпляры выданы
+     */
+    public boolean checkoutBook(String title) {
+        return flipAvailability(title, true);
+    }
+
+    /**
+     * Возвращает первую выданную книгу с таким названием
+     * @param title название книги
+     * @return true, если книга возвращена, false, если книга не найдена или уже доступна
+     */
+    public boolean returnBook(String title) {
+        return flipAvailability(title, false);
+    }
+
+    /**
+     * @return массив доступных книг в порядке добавления
+     */
+    public Book[] listAvailableBooks() {
+        return listBooks(true);
+    }
+
+    /**
+     * @return массив выданных книг в порядке добавления
+     */
+    public Book[] listCheckedOutBooks() {
+        return listBooks(false);
+    }
+
+    /**
+     * @return количество книг
+     */
+    public int size() {
+        return count;
+    }
+
+    /**
+     * Сбрасывает изменения отображенных файлов на диск
+     */
+    public void flush() {
+        records.force();
+        strings.force();
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            if (records != null && strings != null) {
+                flush();
+            }
+        } finally {
+            try {
+                recordChannel.close();
+            } finally {
+                stringChannel.close();
+            }
+        }
+    }
+
+    private void load(Path file) throws IOException {
+        // Файлы отображаются в своем текущем размере, чтобы не расширять чужой файл до проверки заголовка
+        if (recordChannel.size() < HEADER_SIZE || stringChannel.size() < HEADER_SIZE
+                || recordChannel.size() > Integer.MAX_VALUE || stringChannel.size() > Integer.MAX_VALUE) {
+            throw new IOException("Файл не является хранилищем библиотеки: " + file);
+        }
+        records = map(recordChannel, recordChannel.size());
+        strings = map(stringChannel, stringChannel.size());
+        if (records.getInt(0) != MAGIC || strings.getInt(0) != MAGIC) {
+            throw new IOException("Файл не является хранилищем библиотеки: " + file);
+        }
+        if (records.getInt(4) != VERSION || strings.getInt(4) != VERSION) {
+            throw new IOException("Неподдерживаемая версия хранилища: " + records.getInt(4));
+        }
+        count = records.getInt(COUNT_OFFSET);
+        stringsEnd = strings.getInt(STRINGS_END_OFFSET);
+        if (count < 0 || recordOffset(count) > records.capacity()
+                || stringsEnd < HEADER_SIZE || stringsEnd > strings.capacity()) {
+            throw new IOException("Поврежденное хранилище библиотеки: " + file);
+        }
+    }
+
+    private boolean flipAvailability(String title, boolean available) {
+        int record = findRecord(title, available ? 1 : 0);
+        if (record < 0) {
+            return false;
+        }
+        records.put(recordPosition(record) + AVAILABLE_OFFSET, (byte) (available ? 0 : 1));
+        return true;
+    }
+
+    /**
+     * @param availability нужное значение байта доступности или -1 для любой книги
+     * @return номер первой подходящей записи или -1
+     */
+    private int findRecord(String title, int availability) {
+        if (title == null) {
+            return -1;
+        }
+        String key = Library.titleKey(title);
+        int hash = hash(key);
+        int mask = slots.length - 1;
+        for (int slot = hash & mask; slots[slot] != 0; slot = (slot + 1) & mask) {
+            if (slotHashes[slot] != hash) {
+                continue;
+            }
+            int record = slots[slot] - 1;
+            int position = recordPosition(record);
+            if ((availability < 0 || records.get(position + AVAILABLE_OFFSET) == availability)
+                    && key.equals(Library.titleKey(getString(records.getInt(position + TITLE_OFFSET))))) {
+                return record;
+            }
+        }
+        return -1;
+    }
+
+    private Book[] listBooks(boolean available) {
+        byte wanted = (byte) (available ? 1 : 0);
+        List<Book> result = new ArrayList<>();
+        for (int record = 0; record < count; record++) {
+            if (records.get(recordPosition(record) + AVAILABLE_OFFSET) == wanted) {
+                result.add(readBook(record));
+            }
+        }
+        return result.toArray(new Book[0]);
+    }
+
+    private Book readBook(int record) {
+        int position = recordPosition(record);
+        Book book = new Book(getString(records.getInt(position + TITLE_OFFSET)),
+                getString(records.getInt(position + AUTHOR_OFFSET)),
+                records.getInt(position + YEAR_OFFSET));
+        book.setAvailable(records.get(position + AVAILABLE_OFFSET) != 0);
+        return book;
+    }
+
+    /**
+     * Перестраивает индекс по названию для всех записей в порядке добавления
+     */
+    private void rebuildIndex(int minCapacity) {
+        int capacity = Integer.highestOneBit(Math.max(minCapacity, count) * 4 - 1);
+        slots = new int[capacity];
+        slotHashes = new int[capacity];
+        for (int record = 0; record < count; record++) {
+            String title = getString(records.getInt(recordPosition(record) + TITLE_OFFSET));
+            insertIntoIndex(record, hash(Library.titleKey(title)));
+        }
+    }
+
+    private void insertIntoIndex(int record, int hash) {
+        int mask = slots.length - 1;
+        int slot = hash & mask;
+        while (slots[slot] != 0) {
+            slot = (slot + 1) & mask;
+        }
+        slots[slot] = record + 1;
+        slotHashes[slot] = hash;
+    }
+
+    private int putString(String value) {
+        if (value == null) {
+            return NO_STRING;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        int offset = stringsEnd;
+        long end = (long) offset + Integer.BYTES + bytes.length;
+        if (end > Integer.MAX_VALUE) {
+            throw new IllegalStateException("Файл строк библиотеки достиг предельного размера");
+        }
+        strings = ensureCapacity(stringChannel, strings, (int) end);
+        strings.putInt(offset, bytes.length).put(offset + Integer.BYTES, bytes);
+        stringsEnd = (int) end;
+        strings.putInt(STRINGS_END_OFFSET, stringsEnd);
+        return offset;
+    }
+
+    private String getString(int offset) {
+        if (offset == NO_STRING) {
+            return null;
+        }
+        byte[] bytes = new byte[strings.getInt(offset)];
+        strings.get(offset + Integer.BYTES, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private void ensureRecordCapacity(long end) {
+        if (end > Integer.MAX_VALUE) {
+            throw new IllegalStateException("Файл записей библиотеки достиг предельного размера");
+        }
+        records = ensureCapacity(recordChannel, records, (int) end);
+    }
+
+    private static long recordOffset(int record) {
+        return HEADER_SIZE + (long) record * RECORD_SIZE;
+    }
+
+    /**
+     * @return смещение записи в отображении; записи за пределами 2 ГБ не помещаются в одно отображение
+     */
+    private static int recordPosition(int record) {
+        return Math.toIntExact(recordOffset(record));
+    }
+
+    private static int hash(String key) {
+        int hash = key.hashCode();
+        return hash ^ (hash >>> 16);
+    }
+
+    /**
+     * Увеличивает отображение файла вдвое, если в нем нет места до позиции end
+     */
+    private static MappedByteBuffer ensureCapacity(FileChannel channel, MappedByteBuffer buffer, int end) {
+        if (end <= buffer.capacity()) {
+            return buffer;
+        }
+        long size = Math.min(Integer.MAX_VALUE, Math.max((long) buffer.capacity() * 2, end));
+        try {
+            buffer.force();
+            return map(channel, size);
+        } catch (IOException e) {
+            throw new IllegalStateException("Не удалось расширить файл библиотеки", e);
+        }
+    }
+
+    private static MappedByteBuffer map(FileChannel channel, long size) throws IOException {
+        return channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+    }
+}
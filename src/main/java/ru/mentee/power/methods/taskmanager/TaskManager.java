@@ -1,21 +1,35 @@
 package ru.mentee.power.methods.taskmanager;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Date;
 import java.util.List;
 
 /**
- * Класс для управления задачами
+ * Класс для управления задачами.
+ *
+ * Задачи хранятся в массиве в порядке добавления, удаленная задача оставляет пустую ячейку.
+ * Номер ячейки задачи хранится в массиве по ID (ID выдаются подряд), поэтому поиск, удаление
+ * и отметка о выполнении по ID выполняются за O(1). Когда пустых ячеек становится больше
+ * половины, массив уплотняется.
  */
 public class TaskManager {
-    private List<Task> tasks;
+    private static final int INITIAL_CAPACITY = 16;
+    private static final int NO_SLOT = -1;
+
+    private Task[] tasks;
+    private int size;      // занятая часть массива tasks, включая пустые ячейки
+    private int taskCount; // количество задач
+    private int[] slotById;
     private int nextId = 1;
 
     /**
      * Конструктор
      */
     public TaskManager() {
-        tasks = new ArrayList<>();
+        tasks = new Task[INITIAL_CAPACITY];
+        slotById = new int[INITIAL_CAPACITY];
+        Arrays.fill(slotById, NO_SLOT);
     }
 
     /**
@@ -23,7 +37,18 @@ public class TaskManager {
      */
     public Task addTask(String title, String description, Date dueDate, Task.Priority priority) {
         Task task = new Task(nextId++, title, description, dueDate, priority);
-        tasks.add(task);
+        if (size == tasks.length) {
+            tasks = Arrays.copyOf(tasks, size * 2);
+        }
+        if (task.getId() >= slotById.length) {
+            int oldLength = slotById.length;
+            slotById = Arrays.copyOf(slotById, Math.max(oldLength * 2, task.getId() + 1));
+            Arrays.fill(slotById, oldLength, slotById.length, NO_SLOT);
+        }
+        tasks[size] = task;
+        slotById[task.getId()] = size;
+        size++;
+        taskCount++;
         return task;
     }
 
@@ -45,24 +70,25 @@ public class TaskManager {
      * Получение задачи по ID
      */
     public Task getTaskById(int id) {
-        for (Task task : tasks) {
-            if (task.getId() == id) {
-                return task;
-            }
-        }
-        return null;
+        int slot = slotOf(id);
+        return slot == NO_SLOT ? null : tasks[slot];
     }
 
     /**
      * Удаление задачи по ID
      */
     public boolean removeTask(int id) {
-        Task task = getTaskById(id);
-        if (task != null) {
-            tasks.remove(task);
-            return true;
+        int slot = slotOf(id);
+        if (slot == NO_SLOT) {
+            return false;
         }
-        return false;
+        tasks[slot] = null;
+        slotById[id] = NO_SLOT;
+        taskCount--;
+        if (size - taskCount > size / 2) {
+            compact();
+        }
+        return true;
     }
 
     /**
@@ -81,7 +107,13 @@ public class TaskManager {
      * Получение всех задач
      */
     public List<Task> getAllTasks() {
-        return new ArrayList<>(tasks);
+        List<Task> result = new ArrayList<>(taskCount);
+        for (int i = 0; i < size; i++) {
+            if (tasks[i] != null) {
+                result.add(tasks[i]);
+            }
+        }
+        return result;
     }
 
     /**
@@ -89,8 +121,9 @@ public class TaskManager {
      */
     public List<Task> getCompletedTasks() {
         List<Task> result = new ArrayList<>();
-        for (Task task : tasks) {
-            if (task.isCompleted()) {
+        for (int i = 0; i < size; i++) {
+            Task task = tasks[i];
+            if (task != null && task.isCompleted()) {
                 result.add(task);
             }
         }
@@ -102,8 +135,9 @@ public class TaskManager {
      */
     public List<Task> getIncompleteTasks() {
         List<Task> result = new ArrayList<>();
-        for (Task task : tasks) {
-            if (!task.isCompleted()) {
+        for (int i = 0; i < size; i++) {
+            Task task = tasks[i];
+            if (task != null && !task.isCompleted()) {
                 result.add(task);
             }
         }
@@ -115,8 +149,9 @@ public class TaskManager {
      */
     public List<Task> getOverdueTasks() {
         List<Task> result = new ArrayList<>();
-        for (Task task : tasks) {
-            if (task.isOverdue()) {
+        for (int i = 0; i < size; i++) {
+            Task task = tasks[i];
+            if (task != null && task.isOverdue()) {
                 result.add(task);
             }
         }
@@ -128,8 +163,9 @@ public class TaskManager {
      */
     public List<Task> getTasksByPriority(Task.Priority priority) {
         List<Task> result = new ArrayList<>();
-        for (Task task : tasks) {
-            if (task.getPriority() == priority) {
+        for (int i = 0; i < size; i++) {
+            Task task = tasks[i];
+            if (task != null && task.getPriority() == priority) {
                 result.add(task);
             }
         }
@@ -143,9 +179,10 @@ public class TaskManager {
         List<Task> result = new ArrayList<>();
         if (query == null || query.isEmpty()) return result;
         String lower = query.toLowerCase();
-        for (Task task : tasks) {
-            if (task.getTitle().toLowerCase().contains(lower) ||
-                    task.getDescription().toLowerCase().contains(lower)) {
+        for (int i = 0; i < size; i++) {
+            Task task = tasks[i];
+            if (task != null && (task.getTitle().toLowerCase().contains(lower) ||
+                    task.getDescription().toLowerCase().contains(lower))) {
                 result.add(task);
             }
         }
@@ -156,7 +193,7 @@ public class TaskManager {
      * Сортировка задач по сроку выполнения (пузырьком)
      */
     public List<Task> sortTasksByDueDate() {
-        List<Task> sorted = new ArrayList<>(tasks);
+        List<Task> sorted = getAllTasks();
         for (int i = 0; i < sorted.size() - 1; i++) {
             for (int j = 0; j < sorted.size() - i - 1; j++) {
                 Date d1 = sorted.get(j).getDueDate();
@@ -177,7 +214,7 @@ public class TaskManager {
      * Сортировка задач по приоритету (вставками)
      */
     public List<Task> sortTasksByPriority() {
-        List<Task> sorted = new ArrayList<>(tasks);
+        List<Task> sorted = getAllTasks();
         for (int i = 1; i < sorted.size(); i++) {
             Task key = sorted.get(i);
             int j = i - 1;
@@ -194,7 +231,28 @@ public class TaskManager {
      * Вывод всех задач в консоль
      */
     public void printAllTasks() {
-        printTasks(tasks, "Все задачи");
+        printTasks(getAllTasks(), "Все задачи");
+    }
+
+    private int slotOf(int id) {
+        return id > 0 && id < slotById.length ? slotById[id] : NO_SLOT;
+    }
+
+    /**
+     * Убирает пустые ячейки, сохраняя порядок задач, и обновляет номера ячеек
+     */
+    private void compact() {
+        int target = 0;
+        for (int i = 0; i < size; i++) {
+            Task task = tasks[i];
+            if (task != null) {
+                tasks[target] = task;
+                slotById[task.getId()] = target;
+                target++;
+            }
+        }
+        Arrays.fill(tasks, target, size, null);
+        size = target;
     }
 
     /**
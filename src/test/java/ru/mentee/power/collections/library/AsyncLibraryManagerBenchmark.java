@@ -0,0 +1,51 @@
+package ru.mentee.power.collections.library;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Нагрузочный замер {@link AsyncLibraryManager}: 100 000 одновременных читателей.
+ * Не входит в обычный запуск тестов, запускается через {@code gradle benchmark}.
+ */
+@Tag("benchmark")
+class AsyncLibraryManagerBenchmark {
+
+    @Test
+    @DisplayName("Замер: 100 000 сессий выдачи и возврата")
+    void borrowAndReturnSessions() {
+        int bookCount = 1_000;
+        int readerCount = 100_000;
+        LibraryManager libraryManager = new LibraryManager();
+        for (int i = 0; i < bookCount; i++) {
+            libraryManager.addBook(new Book("isbn-" + i, "Книга " + i, 2000, Book.Genre.FANTASY));
+        }
+        for (int i = 0; i < readerCount; i++) {
+            libraryManager.addReader(new Reader("R" + i, "Читатель " + i, null, Reader.ReaderCategory.STUDENT));
+        }
+
+        try (AsyncLibraryManager asyncManager = new AsyncLibraryManager(libraryManager)) {
+            long start = System.nanoTime();
+            List<CompletableFuture<Boolean>> sessions = new ArrayList<>(readerCount);
+            for (int i = 0; i < readerCount; i++) {
+                String isbn = "isbn-" + (i % bookCount);
+                String readerId = "R" + i;
+                sessions.add(asyncManager.borrowBook(isbn, readerId, 14)
+                        .thenCompose(borrowed -> borrowed
+                                ? asyncManager.returnBook(isbn, readerId)
+                                : CompletableFuture.completedFuture(false)));
+            }
+            long completed = sessions.stream().map(CompletableFuture::join).filter(Boolean::booleanValue).count();
+            long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+            System.out.printf("Сессий: %d, успешных выдач: %d, время: %d мс%n", readerCount, completed, elapsedMillis);
+
+            assertThat(libraryManager.getAvailableBooks()).hasSize(bookCount);
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package ru.mentee.power.collections.library;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AsyncLibraryManagerTest {
+
+    private LibraryManager libraryManager;
+    private AsyncLibraryManager asyncManager;
+
+    @BeforeEach
+    void setUp() {
+        libraryManager = new LibraryManager();
+        asyncManager = new AsyncLibraryManager(libraryManager);
+    }
+
+    @AfterEach
+    void tearDown() {
+        asyncManager.close();
+    }
+
+    private void addBooks(int count) {
+        for (int i = 0; i < count; i++) {
+            libraryManager.addBook(new Book("isbn-" + i, "Книга " + i, 2000, Book.Genre.FANTASY));
+        }
+    }
+
+    private void addReaders(int count) {
+        for (int i = 0; i < count; i++) {
+            libraryManager.addReader(new Reader("R" + i, "Читатель " + i, null, Reader.ReaderCategory.STUDENT));
+        }
+    }
+
+    @Test
+    @DisplayName("Должен выполнять связанные операции с одной книгой друг за другом")
+    void shouldApplyChainedMutationsInOrder() {
+        addBooks(1);
+        addReaders(2);
+
+        CompletableFuture<Boolean> firstBorrow = asyncManager.borrowBook("isbn-0", "R0", 14);
+        CompletableFuture<Boolean> firstReturn = firstBorrow.thenCompose(ignored -> asyncManager.returnBook("isbn-0", "R0"));
+        CompletableFuture<Boolean> secondBorrow = firstReturn.thenCompose(ignored -> asyncManager.borrowBook("isbn-0", "R1", 14));
+        CompletableFuture<Boolean> extension = secondBorrow.thenCompose(
+                ignored -> asyncManager.extendBorrowingPeriod("isbn-0", "R1", 7));
+
+        assertThat(extension.join()).isTrue();
+        assertThat(firstBorrow.join()).isTrue();
+        assertThat(firstReturn.join()).isTrue();
+        assertThat(secondBorrow.join()).isTrue();
+        assertThat(asyncManager.getBookByIsbn("isbn-0").join().isAvailable()).isFalse();
+    }
+
+    @Test
+    @DisplayName("Должен выполнять поиск и отчеты асинхронно")
+    void shouldRunSearchesAndReports() {
+        addBooks(3);
+        addReaders(1);
+        asyncManager.borrowBook("isbn-1", "R0", 14).join();
+
+        assertThat(asyncManager.searchBooksByTitle("книга 2").join()).extracting(Book::getIsbn)
+                .containsExactly("isbn-2");
+        assertThat(asyncManager.getAvailableBooks().join()).hasSize(2);
+        assertThat(asyncManager.getMostPopularBooks(1).join()).containsValue(1);
+        assertThat(asyncManager.query(LibraryManager::getAllBorrowings).join()).hasSize(1);
+    }
+
+    @Test
+    @DisplayName("Не должен выдавать один экземпляр двум читателям при одновременных выдачах")
+    void shouldNotDoubleBorrowUnderLoad() {
+        int bookCount = 20;
+        int readerCount = 2_000;
+        addBooks(bookCount);
+        addReaders(readerCount);
+
+        List<CompletableFuture<Boolean>> sessions = new ArrayList<>(readerCount);
+        for (int i = 0; i < readerCount; i++) {
+            String isbn = "isbn-" + (i % bookCount);
+            String readerId = "R" + i;
+            sessions.add(asyncManager.borrowBook(isbn, readerId, 14)
+                    .thenCompose(borrowed -> borrowed
+                            ? asyncManager.returnBook(isbn, readerId)
+                            : CompletableFuture.completedFuture(false)));
+        }
+        long completed = sessions.stream().map(CompletableFuture::join).filter(Boolean::booleanValue).count();
+
+        List<Borrowing> borrowings = libraryManager.getAllBorrowings();
+        assertThat(borrowings).hasSize((int) completed);
+        assertThat(borrowings).allMatch(Borrowing::isReturned);
+        assertThat(libraryManager.getAvailableBooks()).hasSize(bookCount);
+    }
+}
@@ -0,0 +1,68 @@
+package ru.mentee.power.collections.library;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BorrowingTimeSeriesTest {
+
+    private static final LocalDate DAY = LocalDate.of(2024, 3, 1);
+
+    private BorrowingTimeSeries timeSeries;
+
+    @BeforeEach
+    void setUp() {
+        timeSeries = new BorrowingTimeSeries();
+        timeSeries.recordBorrowing(DAY, Book.Genre.FANTASY, Reader.ReaderCategory.STUDENT);
+        timeSeries.recordBorrowing(DAY, Book.Genre.FANTASY, Reader.ReaderCategory.VIP);
+        timeSeries.recordBorrowing(DAY.plusDays(2), Book.Genre.HISTORY, Reader.ReaderCategory.STUDENT);
+        timeSeries.recordBorrowing(DAY.plusDays(40), Book.Genre.HISTORY, null);
+        timeSeries.recordReturn(DAY.plusDays(2), Book.Genre.FANTASY, Reader.ReaderCategory.STUDENT);
+    }
+
+    @Test
+    @DisplayName("Должен считать выдачи по дням периода")
+    void shouldReturnDailySeries() {
+        assertThat(timeSeries.getDailyBorrowings(DAY, DAY.plusDays(3))).containsExactly(2, 0, 1, 0);
+        assertThat(timeSeries.getDailyReturns(DAY, DAY.plusDays(3))).containsExactly(0, 0, 1, 0);
+    }
+
+    @Test
+    @DisplayName("Должен группировать выдачи периода по жанрам и категориям")
+    void shouldGroupByGenreAndCategory() {
+        assertThat(timeSeries.getBorrowingsByGenre(DAY, DAY.plusDays(29)))
+                .isEqualTo(Map.of(Book.Genre.FANTASY, 2L, Book.Genre.HISTORY, 1L));
+        assertThat(timeSeries.getBorrowingsByCategory(DAY, DAY.plusDays(60)))
+                .isEqualTo(Map.of(Reader.ReaderCategory.STUDENT, 2L, Reader.ReaderCategory.VIP, 1L));
+    }
+
+    @Test
+    @DisplayName("Должен фильтровать количество выдач по жанру и категории")
+    void shouldCountWithFilters() {
+        assertThat(timeSeries.getBorrowingCount(DAY, DAY.plusDays(60), null, null)).isEqualTo(4);
+        assertThat(timeSeries.getBorrowingCount(DAY, DAY.plusDays(60), Book.Genre.HISTORY, null)).isEqualTo(2);
+        assertThat(timeSeries.getBorrowingCount(DAY, DAY, Book.Genre.FANTASY, Reader.ReaderCategory.VIP)).isEqualTo(1);
+        assertThat(timeSeries.getReturnCount(DAY, DAY.plusDays(60), null, Reader.ReaderCategory.STUDENT)).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Библиотека должна обновлять счетчики при выдаче и возврате")
+    void libraryShouldUpdateCounters() {
+        LibraryManager library = new LibraryManager();
+        library.addBook(new Book("111", "Война и мир", 1869, Book.Genre.ROMANCE));
+        library.addReader(new Reader("R1", "Иван Иванов", null, Reader.ReaderCategory.TEACHER));
+
+        library.borrowBook("111", "R1", 14);
+        library.returnBook("111", "R1");
+
+        LocalDate today = LocalDate.now();
+        BorrowingTimeSeries series = library.getBorrowingTimeSeries();
+        assertThat(series.getBorrowingsByGenre(today.minusDays(29), today)).isEqualTo(Map.of(Book.Genre.ROMANCE, 1L));
+        assertThat(series.getReturnCount(today, today, Book.Genre.ROMANCE, Reader.ReaderCategory.TEACHER)).isEqualTo(1);
+    }
+}
@@ -0,0 +1,138 @@
+package ru.mentee.power.collections.library;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CoBorrowingIndexTest {
+
+    private CoBorrowingIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new CoBorrowingIndex(3);
+        index.recordBorrowing("R1", "111");
+        index.recordBorrowing("R1", "222");
+        index.recordBorrowing("R2", "111");
+        index.recordBorrowing("R2", "222");
+        index.recordBorrowing("R2", "333");
+        index.recordBorrowing("R3", "111");
+        index.recordBorrowing("R3", "444");
+    }
+
+    @Test
+    @DisplayName("Должен возвращать книги в порядке частоты совместных выдач")
+    void shouldRankByCoBorrowingCount() {
+        assertThat(index.getAlsoBorrowed("111", 3)).containsExactly("222", "333", "444");
+        assertThat(index.getAlsoBorrowed("111", 1)).containsExactly("222");
+        assertThat(index.getAlsoBorrowed("333", 3)).containsExactly("111", "222");
+        assertThat(index.getAlsoBorrowed("111", 0)).isEmpty();
+        assertThatThrownBy(() -> index.getAlsoBorrowed("111", -1)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    @DisplayName("Повторная выдача той же книги не должна менять счетчики")
+    void repeatedBorrowingShouldNotCount() {
+        index.recordBorrowing("R3", "444");
+        index.recordBorrowing("R3", "444");
+
+        assertThat(index.getAlsoBorrowed("111", 3)).containsExactly("222", "333", "444");
+    }
+
+    @Test
+    @DisplayName("Должен обновлять рекомендации после новых выдач")
+    void shouldRefreshCachedRecommendations() {
+        assertThat(index.getAlsoBorrowed("444", 3)).containsExactly("111");
+
+        index.recordBorrowing("R4", "444");
+        index.recordBorrowing("R4", "555");
+        index.recordBorrowing("R5", "444");
+        index.recordBorrowing("R5", "555");
+
+        assertThat(index.getAlsoBorrowed("444", 3)).containsExactly("555", "111");
+    }
+
+    @Test
+    @DisplayName("Количество счетчиков на книгу должно быть ограничено")
+    void countersShouldStayBounded() {
+        for (int i = 0; i < 100; i++) {
+            index.recordBorrowing("R1", "book-" + i);
+        }
+
+        assertThat(index.getAlsoBorrowed("111", 10)).hasSize(3).startsWith("222");
+    }
+
+    @Test
+    @DisplayName("Пересборка по истории должна давать тот же результат, что и инкрементальное обновление")
+    void rebuildShouldMatchIncrementalIndex() {
+        List<Borrowing> history = new ArrayList<>();
+        LocalDate today = LocalDate.now();
+        String[][] pairs = {{"R1", "111"}, {"R1", "222"}, {"R2", "111"}, {"R2", "222"},
+                {"R2", "333"}, {"R3", "111"}, {"R3", "444"}};
+        for (String[] pair : pairs) {
+            history.add(new Borrowing(pair[1], pair[0], today, today.plusDays(7)));
+        }
+
+        CoBorrowingIndex rebuilt = new CoBorrowingIndex(3);
+        rebuilt.rebuild(history);
+
+        for (String isbn : List.of("111", "222", "333", "444")) {
+            assertThat(rebuilt.getAlsoBorrowed(isbn, 3)).isEqualTo(index.getAlsoBorrowed(isbn, 3));
+        }
+    }
+
+    @Test
+    @DisplayName("Библиотека должна рекомендовать книги по истории выдач")
+    void libraryShouldRecommendBooks() {
+        LibraryManager library = new LibraryManager();
+        library.addBook(new Book("111", "Война и мир", 1869, Book.Genre.ROMANCE));
+        library.addBook(new Book("222", "Анна Каренина", 1877, Book.Genre.ROMANCE));
+        library.addReader(new Reader("R1", "Иван Иванов", "ivan@mail.ru", Reader.ReaderCategory.STUDENT));
+
+        library.borrowBook("111", "R1", 7);
+        library.borrowBook("222", "R1", 7);
+
+        assertThat(library.getAlsoBorrowedBooks("111", 5)).extracting(Book::getIsbn).containsExactly("222");
+        library.rebuildRecommendations();
+        assertThat(library.getAlsoBorrowedBooks("222", 5)).extracting(Book::getIsbn).containsExactly("111");
+    }
+
+    @Test
+    @DisplayName("Удаленная книга не должна занимать место в рекомендациях")
+    void removedBookShouldNotTakeRecommendationSlot() {
+        LibraryManager library = new LibraryManager();
+        library.addBook(new Book("111", "Война и мир", 1869, Book.Genre.ROMANCE));
+        library.addBook(new Book("222", "Анна Каренина", 1877, Book.Genre.ROMANCE));
+        library.addBook(new Book("333", "Воскресение", 1899, Book.Genre.ROMANCE));
+        library.addBook(new Book("444", "Детство", 1852, Book.Genre.ROMANCE));
+        library.addReader(new Reader("R1", "Иван Иванов", "ivan@mail.ru", Reader.ReaderCategory.STUDENT));
+        library.addReader(new Reader("R2", "Мария Петрова", "maria@mail.ru", Reader.ReaderCategory.STUDENT));
+        library.borrowBook("111", "R1", 7);
+        library.borrowBook("222", "R1", 7);
+        library.borrowBook("333", "R1", 7);
+        library.returnBook("111", "R1");
+        library.returnBook("222", "R1");
+        library.borrowBook("111", "R2", 7);
+        library.borrowBook("222", "R2", 7);
+        library.borrowBook("444", "R2", 7);
+
+        library.removeBook("222");
+
+        assertThat(library.getAlsoBorrowedBooks("111", 2)).extracting(Book::getIsbn).containsExactly("333", "444");
+        library.rebuildRecommendations();
+        assertThat(library.getAlsoBorrowedBooks("111", 2)).extracting(Book::getIsbn).containsExactly("333", "444");
+    }
+
+    @Test
+    @DisplayName("Должен отклонять неположительное количество рекомендаций")
+    void shouldRejectInvalidTopN() {
+        assertThatThrownBy(() -> new CoBorrowingIndex(0)).isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,114 @@
+package ru.mentee.power.collections.library;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class DuplicateDetectorTest {
+
+    private DuplicateDetector detector;
+
+    @BeforeEach
+    void setUp() {
+        detector = new DuplicateDetector();
+    }
+
+    private static Book book(String isbn, String title, String... authors) {
+        Book book = new Book(isbn, title, 1869, Book.Genre.ROMANCE);
+        for (String author : authors) {
+            book.addAuthor(author);
+        }
+        return book;
+    }
+
+    @Test
+    @DisplayName("Должен находить книгу с почти таким же названием и тем же автором")
+    void shouldFindNearDuplicate() {
+        detector.add(book("111", "Война и мир", "Лев Толстой"));
+
+        Set<String> duplicates = detector.add(book("222", "Война и мир.", "Лев Толстой"));
+
+        assertThat(duplicates).containsExactly("111");
+        assertThat(detector.estimateSimilarity("111", "222")).isGreaterThanOrEqualTo(0.6);
+    }
+
+    @Test
+    @DisplayName("Не должен считать дубликатами разные книги одного автора")
+    void shouldNotMatchDifferentTitles() {
+        detector.add(book("111", "Война и мир", "Лев Толстой"));
+
+        assertThat(detector.add(book("222", "Анна Каренина", "Лев Толстой"))).isEmpty();
+        assertThat(detector.getClusters()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Должен объединять дубликаты в группы и пересобирать их после удаления")
+    void shouldGroupDuplicatesIntoClusters() {
+        detector.add(book("111", "Война и мир", "Лев Толстой"));
+        detector.add(book("222", "ВОЙНА И МИР", "Лев Толстой"));
+        detector.add(book("333", "Война и мир!", "Лев Толстой"));
+        detector.add(book("444", "Мастер и Маргарита", "Михаил Булгаков"));
+
+        List<Set<String>> clusters = detector.getClusters();
+        assertThat(clusters).containsExactly(Set.of("111", "222", "333"));
+
+        detector.remove("222");
+        assertThat(detector.getClusters()).containsExactly(Set.of("111", "333"));
+        assertThat(detector.size()).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("Группы после удаления должны совпадать с группами, построенными заново")
+    void clustersAfterRemoveShouldMatchFreshDetector() {
+        List<Book> books = List.of(
+                book("111", "Война и мир", "Лев Толстой"),
+                book("222", "ВОЙНА И МИР", "Лев Толстой"),
+                book("333", "Война и мир!", "Лев Толстой"),
+                book("444", "Война и миръ", "Лев Толстой"),
+                book("555", "Мастер и Маргарита", "Михаил Булгаков"),
+                book("666", "Мастер и Маргарита.", "Михаил Булгаков"),
+                book("777", "Мастер и маргарита", "Михаил Булгаков"));
+        books.forEach(detector::add);
+        detector.remove("222");
+        detector.remove("666");
+
+        DuplicateDetector fresh = new DuplicateDetector();
+        books.stream()
+                .filter(book -> !book.getIsbn().equals("222") && !book.getIsbn().equals("666"))
+                .forEach(fresh::add);
+
+        assertThat(detector.getClusters()).containsExactlyInAnyOrderElementsOf(fresh.getClusters());
+        assertThat(detector.getClusters()).hasSize(2);
+    }
+
+    @Test
+    @DisplayName("Библиотека должна проверять книги на дубликаты при добавлении")
+    void libraryShouldDetectDuplicatesOnAdd() {
+        LibraryManager library = new LibraryManager();
+        library.addBook(book("111", "Война и мир", "Лев Толстой"));
+        library.setDuplicateDetector(detector);
+
+        library.addBook(book("222", "Война и миръ", "Лев Толстой"));
+        library.addBook(book("333", "Преступление и наказание", "Фёдор Достоевский"));
+
+        List<List<Book>> duplicates = library.findDuplicateBooks();
+        assertThat(duplicates).hasSize(1);
+        assertThat(duplicates.getFirst()).extracting(Book::getIsbn).containsExactlyInAnyOrder("111", "222");
+
+        library.removeBook("222");
+        assertThat(library.findDuplicateBooks()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Должен отклонять некорректные параметры")
+    void shouldRejectInvalidParameters() {
+        assertThatThrownBy(() -> new DuplicateDetector(0, 4, 0.5)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new DuplicateDetector(16, 4, 1.5)).isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,82 @@
+package ru.mentee.power.collections.library;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class FineEngineTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2024, 3, 31);
+
+    private LibraryManager libraryManager;
+    private FineEngine fineEngine;
+
+    @BeforeEach
+    void setUp() {
+        libraryManager = new LibraryManager();
+        libraryManager.addReader(new Reader("R1", "Иван Иванов", null, Reader.ReaderCategory.STUDENT));
+        libraryManager.addReader(new Reader("R2", "Мария Петрова", null, Reader.ReaderCategory.VIP));
+
+        fineEngine = new FineEngine(libraryManager, new FineEngine.Rate(1000, 0, 50_000));
+        fineEngine.setRate(Reader.ReaderCategory.STUDENT, new FineEngine.Rate(500, 2, 3_000));
+    }
+
+    private Borrowing borrowing(String isbn, String readerId, LocalDate dueDate) {
+        Borrowing borrowing = new Borrowing(isbn, readerId, dueDate.minusDays(14), dueDate);
+        libraryManager.restoreBorrowing(borrowing);
+        return borrowing;
+    }
+
+    @Test
+    @DisplayName("Должен считать штрафы по тарифам категорий читателей")
+    void shouldApplyCategoryRates() {
+        borrowing("111", "R1", TODAY.minusDays(5));
+        borrowing("222", "R1", TODAY.minusDays(30));
+        borrowing("333", "R2", TODAY.minusDays(3));
+        borrowing("444", "R2", TODAY.plusDays(3));
+
+        Map<String, Long> fines = fineEngine.computeFines(TODAY);
+
+        // Студент: (5 - 2) * 500 + ограничение 3000; VIP по тарифу по умолчанию: 3 * 1000
+        assertThat(fines).containsExactlyInAnyOrderEntriesOf(Map.of("R1", 4_500L, "R2", 3_000L));
+    }
+
+    @Test
+    @DisplayName("Должен считать просрочку возвращенной книги до дня возврата")
+    void shouldStopAccruingAfterReturn() {
+        Borrowing returned = borrowing("111", "R2", TODAY.minusDays(10));
+        returned.returnBook(TODAY.minusDays(6));
+
+        assertThat(fineEngine.computeFine(returned, TODAY)).isEqualTo(4_000);
+        assertThat(fineEngine.computeFines(TODAY.plusDays(100))).containsEntry("R2", 4_000L);
+    }
+
+    @Test
+    @DisplayName("Инкрементальный расчет должен совпадать с полным")
+    void incrementalShouldMatchFullComputation() {
+        Borrowing open = borrowing("111", "R1", TODAY.minusDays(4));
+        borrowing("222", "R2", TODAY.minusDays(1));
+        assertThat(fineEngine.computeFinesIncrementally(TODAY)).isEqualTo(fineEngine.computeFines(TODAY));
+
+        open.returnBook(TODAY);
+        borrowing("333", "R2", TODAY.minusDays(2)).returnBook(TODAY.minusDays(1));
+        borrowing("444", "R1", TODAY);
+        LocalDate later = TODAY.plusDays(7);
+
+        assertThat(fineEngine.computeFinesIncrementally(later)).isEqualTo(fineEngine.computeFines(later));
+        assertThat(fineEngine.computeFinesIncrementally(later.plusDays(1)))
+                .isEqualTo(fineEngine.computeFines(later.plusDays(1)));
+    }
+
+    @Test
+    @DisplayName("Должен отклонять отрицательные параметры тарифа")
+    void shouldRejectNegativeRate() {
+        assertThatThrownBy(() -> new FineEngine.Rate(-1, 0, 0)).isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,130 @@
+package ru.mentee.power.collections.library;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class HoldQueueTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2024, 3, 1);
+
+    private HoldQueue holds;
+
+    @BeforeEach
+    void setUp() {
+        holds = new HoldQueue(3);
+    }
+
+    @Test
+    @DisplayName("Должен откладывать экземпляры читателям в порядке бронирования")
+    void shouldPromoteReadersInOrder() {
+        holds.enqueue("111", "R1");
+        holds.enqueue("111", "R2");
+
+        assertThat(holds.enqueue("111", "R1")).isFalse();
+        assertThat(holds.promote("111", TODAY).readerId()).isEqualTo("R1");
+        assertThat(holds.promote("111", TODAY).readerId()).isEqualTo("R2");
+        assertThat(holds.promote("111", TODAY)).isNull();
+        assertThat(holds.getReadyHold("111", "R1").expiryDate()).isEqualTo(TODAY.plusDays(3));
+    }
+
+    @Test
+    @DisplayName("Должен снимать только брони с прошедшим сроком")
+    void shouldExpireOnlyOverdueHolds() {
+        holds.makeReady("111", "R1", TODAY);
+        holds.makeReady("222", "R2", TODAY.plusDays(1));
+        holds.makeReady("333", "R3", TODAY);
+        holds.takeReady("333", "R3");
+
+        assertThat(holds.expire(TODAY.plusDays(3))).isEmpty();
+        List<HoldQueue.Hold> expired = holds.expire(TODAY.plusDays(4));
+
+        assertThat(expired).extracting(HoldQueue.Hold::readerId).containsExactly("R1");
+        assertThat(holds.getReadyHold("111", "R1")).isNull();
+        assertThat(holds.getReadyHold("222", "R2")).isNotNull();
+    }
+
+    @Test
+    @DisplayName("Должен снимать брони после перерыва длиннее оборота колеса")
+    void shouldExpireAfterLongPause() {
+        holds.expire(TODAY);
+        holds.setPickupDays(100);
+        holds.makeReady("111", "R1", TODAY);
+        holds.makeReady("222", "R2", TODAY.plusDays(200));
+
+        assertThat(holds.expire(TODAY.plusDays(64))).isEmpty();
+        assertThat(holds.expire(TODAY.plusDays(250))).extracting(HoldQueue.Hold::readerId).containsExactly("R1");
+        assertThat(holds.expire(TODAY.plusDays(301))).extracting(HoldQueue.Hold::readerId).containsExactly("R2");
+    }
+
+    @Test
+    @DisplayName("Библиотека должна передавать возвращенный экземпляр первому в очереди")
+    void libraryShouldHandOverReturnedCopy() {
+        LibraryManager library = new LibraryManager();
+        library.addBook(new Book("111", "Война и мир", 1869, Book.Genre.ROMANCE));
+        for (String id : List.of("R1", "R2", "R3")) {
+            library.addReader(new Reader(id, "Читатель " + id, null, Reader.ReaderCategory.STUDENT));
+        }
+        library.borrowBook("111", "R1", 14);
+
+        assertThat(library.placeHold("111", "R2")).isTrue();
+        assertThat(library.placeHold("111", "R3")).isTrue();
+        assertThat(library.getHoldQueueLength("111")).isEqualTo(2);
+
+        library.returnBook("111", "R1");
+
+        assertThat(library.hasReadyHold("111", "R2")).isTrue();
+        assertThat(library.getAvailableBooks()).isEmpty();
+        assertThat(library.borrowBook("111", "R3", 14)).isFalse();
+        assertThat(library.borrowBook("111", "R2", 14)).isTrue();
+        assertThat(library.getHoldQueueLength("111")).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Библиотека должна передавать экземпляр дальше, если бронь не забрали")
+    void libraryShouldPassCopyOnExpiry() {
+        LibraryManager library = new LibraryManager();
+        library.addBook(new Book("111", "Война и мир", 1869, Book.Genre.ROMANCE));
+        library.addReader(new Reader("R1", "Иван Иванов", null, Reader.ReaderCategory.STUDENT));
+        library.addReader(new Reader("R2", "Мария Петрова", null, Reader.ReaderCategory.STUDENT));
+        library.setHoldPickupDays(2);
+
+        library.placeHold("111", "R1");
+        library.placeHold("111", "R2");
+        assertThat(library.hasReadyHold("111", "R1")).isTrue();
+
+        assertThat(library.expireHolds(LocalDate.now().plusDays(3))).isEqualTo(1);
+        assertThat(library.hasReadyHold("111", "R2")).isTrue();
+
+        assertThat(library.cancelHold("111", "R2")).isTrue();
+        assertThat(library.getAvailableBooks()).extracting(Book::getIsbn).containsExactly("111");
+    }
+
+    @Test
+    @DisplayName("Удаление читателя должно снимать его брони и передавать экземпляр следующему")
+    void removingReaderShouldDropHolds() {
+        LibraryManager library = new LibraryManager();
+        library.addBook(new Book("111", "Война и мир", 1869, Book.Genre.ROMANCE));
+        library.addBook(new Book("222", "Анна Каренина", 1877, Book.Genre.ROMANCE));
+        for (String id : List.of("R1", "R2", "R3")) {
+            library.addReader(new Reader(id, "Читатель " + id, null, Reader.ReaderCategory.STUDENT));
+        }
+        library.borrowBook("111", "R1", 14);
+        library.placeHold("111", "R2");
+        library.placeHold("222", "R2");
+        library.placeHold("222", "R3");
+
+        assertThat(library.removeReader("R2")).isTrue();
+
+        assertThat(library.hasReadyHold("222", "R3")).isTrue();
+        assertThat(library.getHoldQueueLength("111")).isZero();
+        library.returnBook("111", "R1");
+        assertThat(library.hasReadyHold("111", "R2")).isFalse();
+        assertThat(library.borrowBook("111", "R3", 14)).isTrue();
+    }
+}
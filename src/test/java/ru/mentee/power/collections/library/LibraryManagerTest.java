@@ -264,6 +264,52 @@ class LibraryManagerTest {
             assertThat(extendStatus).isTrue();
             assertThat(dueDate.plusDays(2)).isEqualTo(libraryManager.getAllBorrowings().getFirst().getDueDate());
         }
+
+        @Test
+        @DisplayName("Должен выдавать книгу, пока есть свободные экземпляры")
+        void shouldBorrowWhileCopiesRemain() {
+            book1.setTotalCopies(2);
+
+            assertThat(libraryManager.borrowBook("111", "R1", 2)).isTrue();
+            assertThat(libraryManager.getAvailableBooks()).contains(book1);
+            assertThat(libraryManager.borrowBook("111", "R2", 2)).isTrue();
+            assertThat(book1.getAvailableCopies()).isZero();
+            assertThat(libraryManager.getAvailableBooks()).doesNotContain(book1);
+            assertThat(libraryManager.borrowBook("111", "R1", 2)).isFalse();
+
+            assertThat(libraryManager.returnBook("111", "R2")).isTrue();
+            assertThat(book1.getAvailableCopies()).isEqualTo(1);
+            assertThat(libraryManager.getAvailableBooks()).contains(book1);
+        }
+
+        @Test
+        @DisplayName("Не должен повторно принимать уже возвращенную книгу")
+        void shouldNotReturnBookTwice() {
+            book1.setTotalCopies(2);
+            libraryManager.borrowBook("111", "R1", 2);
+
+            assertThat(libraryManager.returnBook("111", "R1")).isTrue();
+            assertThat(libraryManager.returnBook("111", "R1")).isFalse();
+            assertThat(book1.getAvailableCopies()).isEqualTo(2);
+        }
+
+        @Test
+        @DisplayName("setAvailable(true) должен освобождать один экземпляр, не отменяя выдачи")
+        void setAvailableShouldNotDiscardLoans() {
+            book1.setTotalCopies(3);
+            libraryManager.borrowBook("111", "R1", 2);
+            libraryManager.borrowBook("111", "R2", 2);
+            book1.setAvailable(false);
+
+            book1.setAvailable(true);
+            assertThat(book1.getAvailableCopies()).isEqualTo(1);
+            book1.setAvailable(true);
+            assertThat(book1.getAvailableCopies()).isEqualTo(1);
+
+            assertThat(libraryManager.returnBook("111", "R1")).isTrue();
+            assertThat(libraryManager.returnBook("111", "R2")).isTrue();
+            assertThat(book1.getAvailableCopies()).isEqualTo(3);
+        }
     }
 
     @Nested
@@ -303,6 +349,21 @@ class LibraryManagerTest {
             assertThat(popularBooks).containsExactlyEntriesOf(expected);
         }
 
+        @Test
+        @DisplayName("Должен отбирать популярные книги по счетчикам без удаленных книг")
+        void shouldSelectTopBorrowedBooks() {
+            libraryManager.borrowBook("222", "R1", 2);
+            libraryManager.borrowBook("333", "R2", 2);
+            libraryManager.returnBook("333", "R2");
+            libraryManager.borrowBook("333", "R2", 2);
+
+            assertThat(libraryManager.getMostPopularBooks(1)).containsOnlyKeys(book3);
+            assertThat(libraryManager.getMostPopularBooks(0)).isEmpty();
+
+            libraryManager.removeBook("333");
+            assertThat(libraryManager.getMostPopularBooks(5)).containsOnlyKeys(book2);
+        }
+
         @Test
         @DisplayName("Должен возвращать список самых активных читателей")
         void shouldReturnMostActiveReaders() {
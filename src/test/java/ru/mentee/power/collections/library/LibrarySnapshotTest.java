@@ -0,0 +1,144 @@
+package ru.mentee.power.collections.library;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class LibrarySnapshotTest {
+
+    @TempDir
+    Path tempDir;
+
+    private LibraryManager libraryManager;
+
+    @BeforeEach
+    void setUp() {
+        libraryManager = new LibraryManager();
+
+        Book book1 = new Book("111", "Война и мир", 1869, Book.Genre.ROMANCE);
+        book1.setAuthors(new HashSet<>(List.of("Лев Толстой")));
+        book1.setPageCount(1225);
+        Book book2 = new Book("222", "Преступление и наказание", 1866, Book.Genre.ROMANCE);
+        book2.setAuthors(new HashSet<>(List.of("Фёдор Достоевский", "Лев Толстой")));
+        Book book3 = new Book("333", "Гарри Поттер и философский камень", 1997, Book.Genre.FANTASY);
+        book3.setAuthors(new HashSet<>(List.of("Дж. К. Роулинг")));
+
+        libraryManager.addBook(book1);
+        libraryManager.addBook(book2);
+        libraryManager.addBook(book3);
+        libraryManager.addReader(new Reader("R1", "Иван Иванов", "ivan@mail.ru", Reader.ReaderCategory.STUDENT));
+        libraryManager.addReader(new Reader("R2", "Мария Петрова", null, Reader.ReaderCategory.VIP));
+
+        libraryManager.borrowBook("111", "R1", 7);
+        libraryManager.returnBook("111", "R1");
+        libraryManager.borrowBook("222", "R2", 3);
+    }
+
+    @Test
+    @DisplayName("Должен восстанавливать книги, читателей и выдачи из снимка")
+    void shouldRestoreLibraryFromSnapshot() throws IOException {
+        Path file = tempDir.resolve("library.snapshot");
+        LibrarySnapshot.write(libraryManager, file);
+
+        LibraryManager restored = LibrarySnapshot.read(file);
+
+        assertThat(restored.getAllBooks()).hasSize(3);
+        Book book1 = restored.getBookByIsbn("111");
+        assertThat(book1.getTitle()).isEqualTo("Война и мир");
+        assertThat(book1.getPageCount()).isEqualTo(1225);
+        assertThat(book1.isAvailable()).isTrue();
+        assertThat(restored.getBookByIsbn("222").isAvailable()).isFalse();
+        assertThat(restored.getBooksByAuthor("Лев Толстой")).hasSize(2);
+        assertThat(restored.getBooksByGenre(Book.Genre.FANTASY)).hasSize(1);
+
+        assertThat(restored.getReaderById("R2").getEmail()).isNull();
+        assertThat(restored.getReaderById("R2").getCategory()).isEqualTo(Reader.ReaderCategory.VIP);
+
+        assertThat(restored.getAllBorrowings())
+                .containsExactlyElementsOf(libraryManager.getAllBorrowings());
+        assertThat(restored.getBorrowingsByBook("111").getFirst().getReturnDate()).isNotNull();
+        assertThat(restored.getBorrowingsByBook("222").getFirst().getReturnDate()).isNull();
+    }
+
+    @Test
+    @DisplayName("Должен сохранять количество экземпляров книги")
+    void shouldRestoreCopyCounts() throws IOException {
+        libraryManager.getBookByIsbn("333").setTotalCopies(5);
+        libraryManager.borrowBook("333", "R1", 7);
+        Path file = tempDir.resolve("library.snapshot");
+        LibrarySnapshot.write(libraryManager, file);
+
+        Book restored = LibrarySnapshot.read(file).getBookByIsbn("333");
+
+        assertThat(restored.getTotalCopies()).isEqualTo(5);
+        assertThat(restored.getAvailableCopies()).isEqualTo(4);
+    }
+
+    @Test
+    @DisplayName("Должен сохранять отложенные брони и очереди бронирования")
+    void shouldRestoreHolds() throws IOException {
+        libraryManager.placeHold("333", "R1");
+        libraryManager.placeHold("222", "R1");
+        Path file = tempDir.resolve("library.snapshot");
+        LibrarySnapshot.write(libraryManager, file);
+
+        LibraryManager restored = LibrarySnapshot.read(file);
+
+        assertThat(restored.hasReadyHold("333", "R1")).isTrue();
+        assertThat(restored.getBookByIsbn("333").getAvailableCopies()).isZero();
+        assertThat(restored.borrowBook("333", "R2", 7)).isFalse();
+        assertThat(restored.borrowBook("333", "R1", 7)).isTrue();
+
+        assertThat(restored.getHoldQueueLength("222")).isEqualTo(1);
+        restored.returnBook("222", "R2");
+        assertThat(restored.hasReadyHold("222", "R1")).isTrue();
+    }
+
+    @Test
+    @DisplayName("Должен отклонять файл, который не является снимком")
+    void shouldRejectForeignFile() throws IOException {
+        Path file = tempDir.resolve("garbage.bin");
+        Files.write(file, new byte[]{1, 2, 3, 4, 5, 6, 7, 8});
+
+        assertThatThrownBy(() -> LibrarySnapshot.read(file)).isInstanceOf(IOException.class);
+    }
+
+    @Test
+    @DisplayName("Должен сообщать о повреждённом снимке")
+    void shouldRejectTruncatedSnapshot() throws IOException {
+        Path file = tempDir.resolve("library.snapshot");
+        LibrarySnapshot.write(libraryManager, file);
+        byte[] bytes = Files.readAllBytes(file);
+        Files.write(file, Arrays.copyOf(bytes, bytes.length / 2));
+
+        assertThatThrownBy(() -> LibrarySnapshot.read(file)).isInstanceOf(IOException.class);
+    }
+
+    @Test
+    @DisplayName("Должен отклонять снимок с некорректным количеством записей")
+    void shouldRejectCorruptedCount() throws IOException {
+        Path file = tempDir.resolve("library.snapshot");
+        LibrarySnapshot.write(libraryManager, file);
+        byte[] bytes = Files.readAllBytes(file);
+
+        // Количество строк идет сразу после magic и версии
+        for (int count : new int[]{-1, Integer.MAX_VALUE}) {
+            ByteBuffer.wrap(bytes).putInt(8, count);
+            Files.write(file, bytes);
+
+            assertThatThrownBy(() -> LibrarySnapshot.read(file)).isInstanceOf(IOException.class);
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package ru.mentee.power.collections.library;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ReaderDirectoryTest {
+
+    private LibraryManager libraryManager;
+    private Reader ivan, maria, petr;
+
+    @BeforeEach
+    void setUp() {
+        libraryManager = new LibraryManager();
+        ivan = new Reader("R1", "Иван Петров", "Ivan@Mail.ru", Reader.ReaderCategory.STUDENT);
+        maria = new Reader("R2", "Мария Петрова", "maria@mail.ru", Reader.ReaderCategory.TEACHER);
+        petr = new Reader("R3", "Пётр Сидоров", null, Reader.ReaderCategory.STUDENT);
+        libraryManager.addReader(ivan);
+        libraryManager.addReader(maria);
+        libraryManager.addReader(petr);
+    }
+
+    @Test
+    @DisplayName("Должен находить читателя по email без учета регистра")
+    void shouldFindByNormalizedEmail() {
+        assertThat(libraryManager.findReadersByEmail("  ivan@mail.RU ")).containsExactly(ivan);
+        assertThat(libraryManager.findReadersByEmail("nobody@mail.ru")).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Должен находить читателей по началу имени или фамилии")
+    void shouldFindByNamePrefix() {
+        assertThat(libraryManager.findReadersByNamePrefix("петров")).containsExactlyInAnyOrder(ivan, maria);
+        assertThat(libraryManager.findReadersByNamePrefix("Мар")).containsExactly(maria);
+        assertThat(libraryManager.findReadersByNamePrefix("петр")).containsExactlyInAnyOrder(ivan, maria, petr);
+        assertThat(libraryManager.findReadersByNamePrefix("иван петров")).containsExactly(ivan);
+        assertThat(libraryManager.findReadersByNamePrefix("")).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Должен фильтровать результаты поиска по категории")
+    void shouldFilterByCategory() {
+        assertThat(libraryManager.findReadersByNamePrefix("петр", Reader.ReaderCategory.STUDENT))
+                .containsExactlyInAnyOrder(ivan, petr);
+        assertThat(libraryManager.findReadersByNamePrefix("петр", Reader.ReaderCategory.VIP)).isEmpty();
+        assertThat(libraryManager.getReadersByCategory(Reader.ReaderCategory.STUDENT)).containsExactly(ivan, petr);
+        assertThat(libraryManager.getReadersByCategory(Reader.ReaderCategory.VIP)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Должен убирать удаленного читателя из всех индексов")
+    void shouldUnindexRemovedReader() {
+        libraryManager.removeReader("R1");
+
+        assertThat(libraryManager.findReadersByEmail("ivan@mail.ru")).isEmpty();
+        assertThat(libraryManager.findReadersByNamePrefix("петров")).containsExactly(maria);
+        assertThat(libraryManager.findReadersByNamePrefix("петр", Reader.ReaderCategory.STUDENT)).containsExactly(petr);
+        assertThat(libraryManager.getReadersByCategory(Reader.ReaderCategory.STUDENT)).containsExactly(petr);
+    }
+}
@@ -0,0 +1,134 @@
+package ru.mentee.power.collections.library.event;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import ru.mentee.power.collections.library.Book;
+import ru.mentee.power.collections.library.LibraryManager;
+import ru.mentee.power.collections.library.Reader;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class LibraryEventBusTest {
+
+    private LibraryEventBus bus;
+
+    @AfterEach
+    void tearDown() {
+        if (bus != null) {
+            bus.close();
+        }
+    }
+
+    @Test
+    @DisplayName("Подписчик должен получать все события в порядке публикации")
+    void subscriberShouldReceiveEventsInOrder() throws InterruptedException {
+        bus = new LibraryEventBus(1024, 16);
+        List<LibraryEvent> received = Collections.synchronizedList(new ArrayList<>());
+        CountDownLatch done = new CountDownLatch(500);
+        bus.subscribe("test", events -> {
+            received.addAll(events);
+            events.forEach(event -> done.countDown());
+        });
+
+        for (int i = 0; i < 500; i++) {
+            bus.publish(new LibraryEvent.BookAdded("isbn-" + i));
+        }
+
+        assertThat(done.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(received).hasSize(500);
+        for (int i = 0; i < 500; i++) {
+            assertThat(received.get(i).isbn()).isEqualTo("isbn-" + i);
+        }
+    }
+
+    @Test
+    @DisplayName("Медленный подписчик не должен задерживать издателя")
+    void slowSubscriberShouldNotBlockPublisher() throws InterruptedException {
+        bus = new LibraryEventBus(64, 8);
+        CountDownLatch release = new CountDownLatch(1);
+        LibraryEventBus.Subscription slow = bus.subscribe("slow", events -> {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        bus.publish(new LibraryEvent.BookAdded("first"));
+        Thread.sleep(50);
+
+        long start = System.nanoTime();
+        for (int i = 0; i < 10_000; i++) {
+            bus.publish(new LibraryEvent.BookAdded("isbn-" + i));
+        }
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        release.countDown();
+
+        assertThat(elapsedMillis).isLessThan(1000);
+        long deadline = System.currentTimeMillis() + 5000;
+        while (slow.getProcessedCount() + slow.getDroppedCount() < 10_001 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(slow.getDroppedCount()).isGreaterThan(0);
+        assertThat(slow.getProcessedCount() + slow.getDroppedCount()).isEqualTo(10_001);
+    }
+
+    @Test
+    @DisplayName("Исключение в подписчике не должно останавливать доставку")
+    void failingListenerShouldKeepReceiving() throws InterruptedException {
+        bus = new LibraryEventBus(64, 1);
+        CountDownLatch done = new CountDownLatch(3);
+        LibraryEventBus.Subscription subscription = bus.subscribe("failing", events -> {
+            done.countDown();
+            throw new IllegalStateException("сбой подписчика");
+        });
+
+        for (int i = 0; i < 3; i++) {
+            bus.publish(new LibraryEvent.BookRemoved("isbn-" + i));
+        }
+
+        assertThat(done.await(5, TimeUnit.SECONDS)).isTrue();
+        Thread.sleep(20);
+        assertThat(subscription.getFailedBatchCount()).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("Библиотека должна публиковать события выдачи, продления и возврата")
+    void libraryShouldPublishEvents() throws InterruptedException {
+        bus = new LibraryEventBus();
+        List<LibraryEvent> received = Collections.synchronizedList(new ArrayList<>());
+        CountDownLatch done = new CountDownLatch(5);
+        bus.subscribe("library", events -> {
+            received.addAll(events);
+            events.forEach(event -> done.countDown());
+        });
+
+        LibraryManager library = new LibraryManager();
+        library.setEventBus(bus);
+        library.addBook(new Book("111", "Война и мир", 1869, Book.Genre.ROMANCE));
+        library.addReader(new Reader("R1", "Иван Иванов", "ivan@mail.ru", Reader.ReaderCategory.STUDENT));
+        library.borrowBook("111", "R1", 7);
+        library.extendBorrowingPeriod("111", "R1", 3);
+        library.returnBook("111", "R1");
+        library.removeBook("111");
+
+        assertThat(done.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(received).extracting(event -> event.getClass().getSimpleName())
+                .containsExactly("BookAdded", "Borrowed", "Extended", "Returned", "BookRemoved");
+        assertThat(received.get(1)).isInstanceOfSatisfying(LibraryEvent.Borrowed.class,
+                borrowed -> assertThat(borrowed.readerId()).isEqualTo("R1"));
+    }
+
+    @Test
+    @DisplayName("Должен отклонять размер буфера, не являющийся степенью двойки")
+    void shouldRejectInvalidCapacity() {
+        assertThatThrownBy(() -> new LibraryEventBus(100, 8)).isInstanceOf(IllegalArgumentException.class);
+    }
+}
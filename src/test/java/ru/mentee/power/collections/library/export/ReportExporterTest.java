@@ -0,0 +1,91 @@
+package ru.mentee.power.collections.library.export;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import ru.mentee.power.collections.library.Book;
+import ru.mentee.power.collections.library.LibraryManager;
+import ru.mentee.power.collections.library.Reader;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashSet;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ReportExporterTest {
+
+    private LibraryManager libraryManager;
+
+    @BeforeEach
+    void setUp() {
+        libraryManager = new LibraryManager();
+        Book book1 = new Book("111", "Война, \"мир\"", 1869, Book.Genre.ROMANCE);
+        book1.setAuthors(new LinkedHashSet<>(List.of("Лев Толстой", "Кто-то, ещё")));
+        Book book2 = new Book("222", "Мастер и Маргарита", 1967, Book.Genre.FICTION);
+        libraryManager.addBook(book1);
+        libraryManager.addBook(book2);
+        libraryManager.addReader(new Reader("R1", "Иван Иванов", null, Reader.ReaderCategory.STUDENT));
+        libraryManager.borrowBook("111", "R1", -3);
+        libraryManager.borrowBook("222", "R1", 5);
+    }
+
+    private String export(ReportFormat format, Exporter action) throws IOException {
+        StringWriter writer = new StringWriter();
+        action.export(new ReportExporter(writer, format));
+        return writer.toString();
+    }
+
+    private interface Exporter {
+        void export(ReportExporter exporter) throws IOException;
+    }
+
+    @Test
+    @DisplayName("Должен экранировать значения CSV")
+    void shouldEscapeCsvValues() throws IOException {
+        String csv = export(ReportFormat.CSV, exporter -> exporter.writeBooks(libraryManager));
+
+        assertThat(csv).startsWith("isbn,title,authors,genre,publicationYear,pageCount,totalCopies,availableCopies\n");
+        assertThat(csv).contains("111,\"Война, \"\"мир\"\"\",\"Лев Толстой; Кто-то, ещё\",ROMANCE,1869,0,1,0\n");
+    }
+
+    @Test
+    @DisplayName("Должен выгружать только просроченные выдачи")
+    void shouldExportOverdueBorrowings() throws IOException {
+        StringWriter writer = new StringWriter();
+        long rows = new ReportExporter(writer, ReportFormat.JSON).writeOverdueBorrowings(libraryManager);
+
+        assertThat(rows).isEqualTo(1);
+        assertThat(writer.toString())
+                .startsWith("[\n{\"isbn\":\"111\",\"readerId\":\"R1\",\"borrowDate\":\"")
+                .endsWith("\"returnDate\":null}\n]\n")
+                .doesNotContain("222");
+    }
+
+    @Test
+    @DisplayName("Должен выгружать статистику в JSON")
+    void shouldExportStatisticsAsJson() throws IOException {
+        String json = export(ReportFormat.JSON, exporter -> exporter.writePopularBooks(libraryManager, 1));
+
+        assertThat(json).isEqualTo("[\n{\"isbn\":\"111\",\"title\":\"Война, \\\"мир\\\"\",\"borrowCount\":1}\n]\n");
+        assertThat(export(ReportFormat.JSON, exporter -> exporter.writeGenreStatistics(new LibraryManager())))
+                .isEqualTo("[]\n");
+    }
+
+    @Test
+    @DisplayName("Выгрузка в канал должна совпадать с выгрузкой в Writer")
+    void shouldWriteSameBytesToChannel() throws IOException {
+        // Длинное название с суррогатными парами пересекает границы внутренних буферов
+        libraryManager.addBook(new Book("333", "📚".repeat(40_000), 2020, Book.Genre.FANTASY));
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+
+        new ReportExporter(Channels.newChannel(bytes), ReportFormat.CSV).writeBooks(libraryManager);
+
+        assertThat(bytes.toString(StandardCharsets.UTF_8))
+                .isEqualTo(export(ReportFormat.CSV, exporter -> exporter.writeBooks(libraryManager)));
+    }
+}
@@ -0,0 +1,97 @@
+package ru.mentee.power.collections.library.store;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import ru.mentee.power.collections.library.Book;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CachingBookStoreTest {
+
+    private InMemoryBookStore backing;
+    private CachingBookStore cache;
+
+    @BeforeEach
+    void setUp() {
+        backing = new InMemoryBookStore();
+        for (int i = 0; i < 100; i++) {
+            backing.add(new Book("isbn-" + i, "Книга " + i, 2000, Book.Genre.FICTION));
+        }
+        cache = new CachingBookStore(backing, 10);
+    }
+
+    @Test
+    @DisplayName("Должен загружать книгу из хранилища при промахе и отдавать из кэша при повторе")
+    void shouldLoadOnMissAndHitOnRepeat() {
+        assertThat(cache.get("isbn-1")).isNotNull();
+        assertThat(cache.get("isbn-1")).isNotNull();
+
+        CacheStats stats = cache.getStats();
+        assertThat(stats.missCount()).isEqualTo(1);
+        assertThat(stats.hitCount()).isEqualTo(1);
+        assertThat(stats.hitRate()).isEqualTo(0.5);
+    }
+
+    @Test
+    @DisplayName("Не должен превышать заданную вместимость")
+    void shouldStayBounded() {
+        for (int i = 0; i < 100; i++) {
+            cache.get("isbn-" + i);
+        }
+
+        CacheStats stats = cache.getStats();
+        assertThat(stats.size()).isEqualTo(10);
+        assertThat(stats.evictionCount()).isEqualTo(90);
+    }
+
+    @Test
+    @DisplayName("Популярные книги должны переживать однократный просмотр всего каталога")
+    void hotBooksShouldSurviveScan() {
+        for (int round = 0; round < 3; round++) {
+            for (int i = 0; i < 5; i++) {
+                cache.get("isbn-" + i);
+            }
+        }
+        for (int i = 10; i < 100; i++) {
+            cache.get("isbn-" + i);
+        }
+
+        long missesBefore = cache.getStats().missCount();
+        for (int i = 0; i < 5; i++) {
+            cache.get("isbn-" + i);
+        }
+        assertThat(cache.getStats().missCount()).isEqualTo(missesBefore);
+    }
+
+    @Test
+    @DisplayName("Обход каталога не должен заполнять кэш")
+    void forEachShouldNotPopulateCache() {
+        List<Book> all = new ArrayList<>();
+        cache.forEach(all::add);
+
+        assertThat(all).hasSize(100);
+        assertThat(cache.getStats().size()).isZero();
+    }
+
+    @Test
+    @DisplayName("Удаленная книга не должна возвращаться из кэша")
+    void shouldRemoveFromCacheAndStore() {
+        cache.get("isbn-3");
+
+        assertThat(cache.remove("isbn-3")).isNotNull();
+        assertThat(cache.get("isbn-3")).isNull();
+        assertThat(backing.contains("isbn-3")).isFalse();
+    }
+
+    @Test
+    @DisplayName("Должен отклонять слишком маленькую вместимость")
+    void shouldRejectTinyCapacity() {
+        assertThatThrownBy(() -> new CachingBookStore(backing, 1))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
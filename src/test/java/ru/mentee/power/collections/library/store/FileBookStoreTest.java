@@ -0,0 +1,131 @@
+package ru.mentee.power.collections.library.store;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import ru.mentee.power.collections.library.Book;
+import ru.mentee.power.collections.library.LibraryManager;
+import ru.mentee.power.collections.library.Reader;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FileBookStoreTest {
+
+    @TempDir
+    Path tempDir;
+
+    private Path file;
+    private FileBookStore store;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        file = tempDir.resolve("books.dat");
+        store = new FileBookStore(file);
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        store.close();
+    }
+
+    @Test
+    @DisplayName("Должен сохранять и читать все поля книги")
+    void shouldRoundTripBook() {
+        Book book = new Book("111", "Война и мир", 1869, Book.Genre.ROMANCE);
+        book.setAuthors(new HashSet<>(List.of("Лев Толстой", "Соавтор")));
+        book.setPageCount(1225);
+
+        assertThat(store.add(book)).isTrue();
+        assertThat(store.add(book)).isFalse();
+
+        Book loaded = store.get("111");
+        assertThat(loaded).isNotSameAs(book);
+        assertThat(loaded.getTitle()).isEqualTo("Война и мир");
+        assertThat(loaded.getAuthors()).containsExactlyInAnyOrder("Лев Толстой", "Соавтор");
+        assertThat(loaded.getGenre()).isEqualTo(Book.Genre.ROMANCE);
+        assertThat(loaded.getPublicationYear()).isEqualTo(1869);
+        assertThat(loaded.getPageCount()).isEqualTo(1225);
+        assertThat(loaded.isAvailable()).isTrue();
+    }
+
+    @Test
+    @DisplayName("Должен сохранять изменения книги и уплотнять файл")
+    void shouldPersistUpdatesAndCompact() {
+        Book book = new Book("111", "Война и мир", 1869, Book.Genre.ROMANCE);
+        store.add(book);
+
+        for (int i = 0; i < 200_000; i++) {
+            book.setAvailable(i % 2 == 0);
+            store.update(book);
+        }
+
+        assertThat(store.get("111").isAvailable()).isFalse();
+        assertThat(store.getFileSize()).isLessThan(2L << 20);
+    }
+
+    @Test
+    @DisplayName("Библиотека должна работать поверх файлового хранилища с кэшем")
+    void libraryShouldWorkOnTopOfFileStore() {
+        LibraryManager library = new LibraryManager(new CachingBookStore(store, 16));
+        Book book = new Book("111", "Война и мир", 1869, Book.Genre.ROMANCE);
+        book.addAuthor("Лев Толстой");
+        library.addBook(book);
+        library.addReader(new Reader("R1", "Иван Иванов", "ivan@mail.ru", Reader.ReaderCategory.STUDENT));
+
+        assertThat(library.borrowBook("111", "R1", 7)).isTrue();
+        assertThat(store.get("111").isAvailable()).isFalse();
+        assertThat(library.getAvailableBooks()).isEmpty();
+        assertThat(library.getBooksByAuthor("Лев Толстой")).hasSize(1);
+
+        assertThat(library.returnBook("111", "R1")).isTrue();
+        assertThat(store.get("111").isAvailable()).isTrue();
+    }
+
+    @Test
+    @DisplayName("Должен восстанавливать книги после повторного открытия файла")
+    void shouldRestoreBooksAfterReopen() throws IOException {
+        Book book = new Book("111", "Война и мир", 1869, Book.Genre.ROMANCE);
+        store.add(book);
+        store.add(new Book("222", "Преступление и наказание", 1866, Book.Genre.ROMANCE));
+        book.setAvailable(false);
+        store.update(book);
+        store.remove("222");
+        store.close();
+
+        store = new FileBookStore(file);
+
+        assertThat(store.size()).isEqualTo(1);
+        assertThat(store.contains("222")).isFalse();
+        assertThat(store.get("111").isAvailable()).isFalse();
+
+        LibraryManager library = new LibraryManager(store);
+        assertThat(library.getBooksByGenre(Book.Genre.ROMANCE)).hasSize(1);
+        assertThat(library.getAvailableBooks()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Должен отбрасывать недописанную запись в конце файла")
+    void shouldDropIncompleteTrailingRecord() throws IOException {
+        store.add(new Book("111", "Война и мир", 1869, Book.Genre.ROMANCE));
+        store.add(new Book("222", "Преступление и наказание", 1866, Book.Genre.ROMANCE));
+        store.close();
+        byte[] bytes = Files.readAllBytes(file);
+        Files.write(file, Arrays.copyOf(bytes, bytes.length - 3));
+
+        store = new FileBookStore(file);
+
+        assertThat(store.size()).isEqualTo(1);
+        assertThat(store.get("111").getTitle()).isEqualTo("Война и мир");
+        store.add(new Book("333", "Гарри Поттер", 1997, Book.Genre.FANTASY));
+        assertThat(store.get("333").getTitle()).isEqualTo("Гарри Поттер");
+    }
+}
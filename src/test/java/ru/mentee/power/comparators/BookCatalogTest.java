@@ -99,4 +99,58 @@ public class BookCatalogTest {
                 .contains(book1, book4)
                 .doesNotContain(book2, book3);
     }
+
+    @Test
+    @DisplayName("sortBooks с лимитом должен возвращать начало полной сортировки")
+    void sortBooksWithLimitShouldReturnPrefix() {
+        Book sameYear = new Book("Идиот", "Достоевский Ф.М.", 1869, 640, "Роман");
+        catalog.addBook(sameYear);
+
+        List<Book> firstThree = catalog.sortBooks(BookCatalog.byYearPublished(), 3);
+
+        // Книги 1869 года остаются в порядке добавления, как при устойчивой сортировке
+        assertThat(firstThree).containsExactly(book2, book1, sameYear);
+        assertThat(catalog.sortBooks(BookCatalog.byTitle(), 10))
+                .containsExactlyElementsOf(catalog.sortBooks(BookCatalog.byTitle()));
+        assertThat(catalog.sortBooks(BookCatalog.byTitle(), 0)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("filterAndSort должен фильтровать и возвращать первые книги по компаратору")
+    void filterAndSortShouldFilterAndLimit() {
+        List<Book> novels = catalog.filterAndSort(book -> book.getGenre().equals("Роман"), BookCatalog.byPageCount(), 2);
+
+        assertThat(novels).containsExactly(book2, book4);
+    }
+
+    @Test
+    @DisplayName("sortBooks с отрицательным лимитом должен выбрасывать исключение")
+    void sortBooksWithNegativeLimitShouldThrow() {
+        assertThrows(IllegalArgumentException.class, () -> catalog.sortBooks(BookCatalog.byTitle(), -1));
+        assertThrows(IllegalArgumentException.class, () -> catalog.filterAndSort(null, BookCatalog.byTitle(), 1));
+    }
+
+    @Test
+    @DisplayName("sortedView должен возвращать одно и то же неизменяемое представление")
+    void sortedViewShouldBeCached() {
+        List<Book> view = catalog.sortedView(BookCatalog.byTitle());
+
+        assertThat(view).containsExactly(book4, book1, book3, book2);
+        assertThat(catalog.sortedView(BookCatalog.byTitle())).isSameAs(view);
+        assertThrows(UnsupportedOperationException.class, () -> view.add(book1));
+    }
+
+    @Test
+    @DisplayName("Представления должны учитывать новые книги, не меняя уже выданные")
+    void sortedViewShouldIncludeAddedBooks() {
+        List<Book> before = catalog.sortedView(BookCatalog.byYearPublished());
+        Book sameYear = new Book("Идиот", "Достоевский Ф.М.", 1869, 640, "Роман");
+
+        catalog.addBook(sameYear);
+        List<Book> after = catalog.sortedView(BookCatalog.byYearPublished());
+
+        assertThat(before).containsExactly(book2, book1, book4, book3);
+        assertThat(after).containsExactly(book2, book1, sameYear, book4, book3);
+        assertThat(catalog.sortBooks(BookCatalog.byYearPublished())).containsExactlyElementsOf(after);
+    }
 }
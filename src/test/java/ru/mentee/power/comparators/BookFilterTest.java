@@ -0,0 +1,86 @@
+package ru.mentee.power.comparators;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class BookFilterTest {
+    private BookCatalog catalog;
+    private Book book1, book2, book3, book4;
+
+    @BeforeEach
+    void setUp() {
+        catalog = new BookCatalog();
+
+        book1 = new Book("Война и мир", "Толстой Л.Н.", 1869, 1225, "Роман");
+        book2 = new Book("Преступление и наказание", "Достоевский Ф.М.", 1866, 672, "Роман");
+        book3 = new Book("Мастер и Маргарита", "Булгаков М.А.", 1967, 480, "Фантастика");
+        book4 = new Book("Анна Каренина", "Толстой Л.Н.", 1877, 864, "Роман");
+
+        catalog.addBook(book1);
+        catalog.addBook(book2);
+        catalog.addBook(book3);
+        catalog.addBook(book4);
+    }
+
+    @Test
+    @DisplayName("Должен отбирать книги по автору, жанру и диапазонам в порядке добавления")
+    void shouldFilterByStructuredConditions() {
+        assertThat(catalog.filterBooks(BookFilter.authorEquals("Толстой Л.Н."))).containsExactly(book1, book4);
+        assertThat(catalog.filterBooks(BookFilter.genreEquals("Фантастика"))).containsExactly(book3);
+        assertThat(catalog.filterBooks(BookFilter.yearBetween(1866, 1877))).containsExactly(book1, book2, book4);
+        assertThat(catalog.filterBooks(BookFilter.pageCountBetween(500, 900))).containsExactly(book2, book4);
+    }
+
+    @Test
+    @DisplayName("Должен объединять условия и распознавать противоречивые")
+    void shouldCombineConditions() {
+        BookFilter tolstoyBefore1870 = BookFilter.authorEquals("Толстой Л.Н.").and(BookFilter.yearBetween(1800, 1870));
+        BookFilter twoAuthors = BookFilter.authorEquals("Толстой Л.Н.").and(BookFilter.authorEquals("Булгаков М.А."));
+
+        assertThat(catalog.filterBooks(tolstoyBefore1870)).containsExactly(book1);
+        assertThat(catalog.filterBooks(twoAuthors)).isEmpty();
+        assertThat(catalog.filterBooks(BookFilter.yearBetween(1900, 1800))).isEmpty();
+        assertThat(tolstoyBefore1870.test(book4)).isFalse();
+    }
+
+    @Test
+    @DisplayName("Результат по индексам должен совпадать с перебором на большом каталоге")
+    void indexedFilterShouldMatchScan() {
+        Random random = new Random(17);
+        List<Book> books = new ArrayList<>(List.of(book1, book2, book3, book4));
+        List<BookFilter> filters = List.of(
+                BookFilter.yearBetween(1900, 1910),
+                BookFilter.yearBetween(1990, Integer.MAX_VALUE).and(BookFilter.genreEquals("Жанр 2")),
+                BookFilter.authorEquals("Автор 7").and(BookFilter.pageCountBetween(100, 300)),
+                BookFilter.pageCountBetween(Integer.MIN_VALUE, 50));
+
+        // Индексы проверяются и после перестройки, и с еще не проиндексированными книгами
+        for (int round = 0; round < 5; round++) {
+            for (int i = 0; i < 3_000; i++) {
+                Book book = new Book("Том " + i, "Автор " + random.nextInt(40), 1900 + random.nextInt(120),
+                        random.nextInt(1000), "Жанр " + random.nextInt(5));
+                catalog.addBook(book);
+                books.add(book);
+            }
+            for (BookFilter filter : filters) {
+                assertThat(catalog.filterBooks(filter)).containsExactlyElementsOf(books.stream().filter(filter).toList());
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("filterAndSort должен использовать структурное условие")
+    void filterAndSortShouldAcceptBookFilter() {
+        assertThat(catalog.filterAndSort(BookFilter.genreEquals("Роман"), BookCatalog.byTitle(), 2))
+                .containsExactly(book4, book1);
+        assertThatThrownBy(() -> BookFilter.yearBetween(1, 2).and(null)).isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,115 @@
+package ru.mentee.power.comparators;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class BookOrderingTest {
+    private List<Book> books;
+
+    @BeforeEach
+    void setUp() {
+        books = List.of(
+                new Book("Война и мир", "Толстой Л.Н.", 1869, 1225, "Роман"),
+                new Book("Преступление и наказание", "Достоевский Ф.М.", 1866, 672, "Роман"),
+                new Book("Мастер и Маргарита", "Булгаков М.А.", 1967, 480, "Фантастика"),
+                new Book("Анна Каренина", "Толстой Л.Н.", 1877, 864, "Роман"),
+                new Book("Идиот", "Достоевский Ф.М.", 1869, 640, "Роман"),
+                new Book("Собачье сердце", "Булгаков М.А.", 1925, 480, "Фантастика"));
+    }
+
+    private List<Book> sorted(Comparator<Book> comparator) {
+        List<Book> result = new ArrayList<>(books);
+        result.sort(comparator);
+        return result;
+    }
+
+    @Test
+    @DisplayName("Порядок должен совпадать с цепочкой компараторов каталога")
+    void shouldMatchChainedComparators() {
+        BookOrdering ordering = BookOrdering.by(BookOrdering.Criterion.GENRE)
+                .thenBy(BookOrdering.Criterion.AUTHOR)
+                .thenBy(BookOrdering.Criterion.TITLE)
+                .build();
+        Comparator<Book> chained = BookCatalog.multipleComparators(
+                List.of(Comparator.comparing(Book::getGenre), BookCatalog.byAuthor(), BookCatalog.byTitle()));
+
+        assertThat(sorted(ordering)).containsExactlyElementsOf(sorted(chained));
+    }
+
+    @Test
+    @DisplayName("Критерий по убыванию должен совпадать с reversed()")
+    void shouldSortDescending() {
+        BookOrdering ordering = BookOrdering.byDescending(BookOrdering.Criterion.PAGE_COUNT)
+                .thenBy(BookOrdering.Criterion.TITLE)
+                .build();
+        Comparator<Book> chained = BookCatalog.byPageCount().reversed().thenComparing(BookCatalog.byTitle());
+
+        assertThat(sorted(ordering)).containsExactlyElementsOf(sorted(chained));
+        assertThat(ordering.isDescending(0)).isTrue();
+        assertThat(ordering.isDescending(1)).isFalse();
+    }
+
+    @Test
+    @DisplayName("Упакованные ключи должны давать тот же порядок, что и компаратор")
+    void packedKeysShouldPreserveOrder() {
+        BookOrdering ordering = BookOrdering.by(BookOrdering.Criterion.YEAR_PUBLISHED)
+                .thenByDescending(BookOrdering.Criterion.PAGE_COUNT)
+                .build();
+        List<Book> withExtremes = new ArrayList<>(books);
+        withExtremes.add(new Book("Глиняные таблички", "Неизвестен", -2000, Integer.MAX_VALUE, "История"));
+        withExtremes.add(new Book("Черновик", "Неизвестен", Integer.MAX_VALUE, 0, "Роман"));
+
+        for (Book a : withExtremes) {
+            for (Book b : withExtremes) {
+                assertThat(Integer.signum(Long.compare(ordering.packedKey(a), ordering.packedKey(b))))
+                        .isEqualTo(Integer.signum(ordering.compare(a, b)));
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Упакованный ключ недоступен для строковых критериев")
+    void packedKeyShouldRequireNumericCriteria() {
+        BookOrdering ordering = BookOrdering.by(BookOrdering.Criterion.TITLE).build();
+
+        assertThat(ordering.hasPackedKey()).isFalse();
+        assertThatThrownBy(() -> ordering.packedKey(books.get(0))).isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    @DisplayName("Повторный критерий не должен добавляться")
+    void shouldIgnoreDuplicateCriterion() {
+        BookOrdering ordering = BookOrdering.by(BookOrdering.Criterion.AUTHOR)
+                .thenByDescending(BookOrdering.Criterion.AUTHOR)
+                .build();
+
+        assertThat(ordering.getCriteria()).containsExactly(BookOrdering.Criterion.AUTHOR);
+        assertThat(ordering.isDescending(0)).isFalse();
+        assertThatThrownBy(() -> BookOrdering.by(null)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    @DisplayName("multipleComparators должен вызывать каждый компаратор один раз на сравнение")
+    void multipleComparatorsShouldCompareOnce() {
+        AtomicInteger calls = new AtomicInteger();
+        Comparator<Book> counting = (o1, o2) -> {
+            calls.incrementAndGet();
+            return BookCatalog.byAuthor().compare(o1, o2);
+        };
+        Comparator<Book> comparator = BookCatalog.multipleComparators(Arrays.asList(counting, BookCatalog.byTitle()));
+
+        comparator.compare(books.get(0), books.get(1));
+
+        assertThat(calls).hasValue(1);
+    }
+}
@@ -0,0 +1,96 @@
+package ru.mentee.power.comparators;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BookSortKeysTest {
+
+    private static List<Book> randomBooks(int count, long seed) {
+        String[] titles = {"Анна Каренина", "анна каренина", "Идиот", "ИДИОТ", "Бесы", "Мать"};
+        String[] authors = {"Толстой Л.Н.", "Достоевский Ф.М.", "Горький М."};
+        String[] genres = {"Роман", "Повесть", "Драма"};
+        Random random = new Random(seed);
+        List<Book> books = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            books.add(new Book(
+                    titles[random.nextInt(titles.length)],
+                    authors[random.nextInt(authors.length)],
+                    1850 + random.nextInt(80) - (random.nextInt(10) == 0 ? Integer.MAX_VALUE : 0),
+                    100 + random.nextInt(1000),
+                    genres[random.nextInt(genres.length)]));
+        }
+        return books;
+    }
+
+    private static List<Book> comparatorSort(List<Book> books, BookOrdering ordering) {
+        List<Book> expected = new ArrayList<>(books);
+        expected.sort(ordering);
+        return expected;
+    }
+
+    @Test
+    @DisplayName("Сортировка по ключам должна совпадать с устойчивой сортировкой компаратором")
+    void shouldMatchComparatorSort() {
+        List<Book> books = randomBooks(500, 1);
+        List<BookOrdering> orderings = List.of(
+                BookOrdering.by(BookOrdering.Criterion.TITLE).build(),
+                BookOrdering.byDescending(BookOrdering.Criterion.GENRE)
+                        .thenBy(BookOrdering.Criterion.YEAR_PUBLISHED)
+                        .build(),
+                BookOrdering.by(BookOrdering.Criterion.AUTHOR)
+                        .thenByDescending(BookOrdering.Criterion.PAGE_COUNT)
+                        .thenBy(BookOrdering.Criterion.TITLE)
+                        .build());
+
+        for (BookOrdering ordering : orderings) {
+            assertThat(BookSortKeys.sort(books, ordering)).containsExactlyElementsOf(comparatorSort(books, ordering));
+        }
+    }
+
+    @Test
+    @DisplayName("Большой каталог должен сортироваться параллельно с тем же результатом")
+    void shouldMatchComparatorSortForLargeCatalogue() {
+        List<Book> books = randomBooks(BookSortKeys.PARALLEL_SORT_THRESHOLD * 2, 2);
+        BookOrdering ordering = BookOrdering.by(BookOrdering.Criterion.GENRE)
+                .thenByDescending(BookOrdering.Criterion.TITLE)
+                .build();
+
+        assertThat(BookSortKeys.sort(books, ordering)).containsExactlyElementsOf(comparatorSort(books, ordering));
+    }
+
+    @Test
+    @DisplayName("Если ключ не помещается в long, должна использоваться сортировка компаратором")
+    void shouldFallBackWhenKeyDoesNotFit() {
+        List<Book> books = new ArrayList<>();
+        for (int i = 0; i < 3000; i++) {
+            books.add(new Book("Книга " + (i % 1500), "Автор " + i, 1000 + i, i % 2000, "Жанр " + i));
+        }
+        BookOrdering ordering = BookOrdering.by(BookOrdering.Criterion.TITLE)
+                .thenBy(BookOrdering.Criterion.AUTHOR)
+                .thenBy(BookOrdering.Criterion.YEAR_PUBLISHED)
+                .thenBy(BookOrdering.Criterion.PAGE_COUNT)
+                .thenBy(BookOrdering.Criterion.GENRE)
+                .build();
+
+        assertThat(BookSortKeys.sort(books, ordering)).containsExactlyElementsOf(comparatorSort(books, ordering));
+    }
+
+    @Test
+    @DisplayName("sortBooks должен использовать ключи для BookOrdering и не менять каталог")
+    void catalogueShouldSortByKeys() {
+        BookCatalog catalog = new BookCatalog();
+        List<Book> books = randomBooks(50, 3);
+        books.forEach(catalog::addBook);
+
+        List<Book> sorted = catalog.sortBooks(BookOrdering.by(BookOrdering.Criterion.TITLE).build());
+
+        assertThat(sorted).containsExactlyElementsOf(comparatorSort(books, BookOrdering.by(BookOrdering.Criterion.TITLE).build()));
+        assertThat(catalog.getAllBooks()).containsExactlyElementsOf(books);
+    }
+}
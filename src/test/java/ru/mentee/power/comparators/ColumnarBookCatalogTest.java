@@ -0,0 +1,76 @@
+package ru.mentee.power.comparators;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ColumnarBookCatalogTest {
+    private ColumnarBookCatalog catalog;
+
+    @BeforeEach
+    void setUp() {
+        catalog = new ColumnarBookCatalog();
+        catalog.addBook(new Book("Война и мир", "Толстой Л.Н.", 1869, 1225, "Роман"));
+        catalog.addBook(new Book("Преступление и наказание", "Достоевский Ф.М.", 1866, 672, "Роман"));
+        catalog.addBook(new Book("Мастер и Маргарита", "Булгаков М.А.", 1967, 480, "Фантастика"));
+        catalog.addBook(new Book("Анна Каренина", "Толстой Л.Н.", 1877, 864, "Роман"));
+    }
+
+    private static List<String> titles(List<Book> books) {
+        return books.stream().map(Book::getTitle).toList();
+    }
+
+    @Test
+    @DisplayName("Должен восстанавливать книги из столбцов в порядке добавления")
+    void shouldMaterializeBooks() {
+        Book book = catalog.getBook(2);
+
+        assertThat(catalog.size()).isEqualTo(4);
+        assertThat(book.getTitle()).isEqualTo("Мастер и Маргарита");
+        assertThat(book.getAuthor()).isEqualTo("Булгаков М.А.");
+        assertThat(book.getYearPublished()).isEqualTo(1967);
+        assertThat(book.getPageCount()).isEqualTo(480);
+        assertThat(book.getGenre()).isEqualTo("Фантастика");
+        assertThat(titles(catalog.getAllBooks()))
+                .containsExactly("Война и мир", "Преступление и наказание", "Мастер и Маргарита", "Анна Каренина");
+        assertThatThrownBy(() -> catalog.getBook(4)).isInstanceOf(IndexOutOfBoundsException.class);
+    }
+
+    @Test
+    @DisplayName("Должен фильтровать по диапазонам года и количества страниц")
+    void shouldFilterByRanges() {
+        assertThat(titles(catalog.filterByYear(1860, 1870)))
+                .containsExactly("Война и мир", "Преступление и наказание");
+        assertThat(titles(catalog.filterByPageCount(600, 900)))
+                .containsExactly("Преступление и наказание", "Анна Каренина");
+        assertThat(catalog.filterByYear(2000, 2024)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Должен фильтровать по автору и жанру через словари")
+    void shouldFilterByDictionaryColumns() {
+        assertThat(titles(catalog.filterByAuthor("Толстой Л.Н.")))
+                .containsExactly("Война и мир", "Анна Каренина");
+        assertThat(titles(catalog.filterByGenre("Фантастика"))).containsExactly("Мастер и Маргарита");
+        assertThat(catalog.filterByAuthor("Пушкин А.С.")).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Должен расширять столбцы и сохранять результат произвольного фильтра")
+    void shouldGrowAndFilterByPredicate() {
+        for (int i = 0; i < 100; i++) {
+            catalog.addBook(new Book("Том " + i, "Автор " + (i % 10), 1900 + i, 100 + i, "Сборник"));
+        }
+
+        assertThat(catalog.size()).isEqualTo(104);
+        assertThat(catalog.filterByAuthor("Автор 3")).hasSize(10);
+        assertThat(titles(catalog.filterBooks(book -> book.getPageCount() > 197)))
+                .containsExactly("Война и мир", "Преступление и наказание", "Мастер и Маргарита", "Анна Каренина",
+                        "Том 98", "Том 99");
+    }
+}
@@ -0,0 +1,91 @@
+package ru.mentee.power.comparators;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ExternalBookSorterTest {
+
+    @TempDir
+    Path tempDir;
+
+    private static List<Book> randomBooks(int count) {
+        Random random = new Random(42);
+        List<Book> books = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            // Номер книги хранится в количестве страниц, чтобы проверять порядок равных книг
+            books.add(new Book("Книга " + random.nextInt(200), random.nextInt(20) == 0 ? null : "Автор",
+                    1900 + random.nextInt(50), i, "Роман"));
+        }
+        return books;
+    }
+
+    private static List<Integer> ids(List<Book> books) {
+        return books.stream().map(Book::getPageCount).toList();
+    }
+
+    private List<Book> sortExternally(List<Book> books, int maxBooksInMemory) throws IOException {
+        Path input = tempDir.resolve("input.bin");
+        Path output = tempDir.resolve("output.bin");
+        ExternalBookSorter.writeBooks(books, input);
+        new ExternalBookSorter(maxBooksInMemory, tempDir).sort(input, output, BookCatalog.byYearPublished());
+        return ExternalBookSorter.readBooks(output);
+    }
+
+    @Test
+    @DisplayName("Результат должен совпадать с устойчивой сортировкой в памяти")
+    void shouldMatchStableSort() throws IOException {
+        List<Book> books = randomBooks(5_000);
+        List<Book> expected = new ArrayList<>(books);
+        expected.sort(BookCatalog.byYearPublished());
+
+        List<Book> sorted = sortExternally(books, 300);
+
+        assertThat(ids(sorted)).containsExactlyElementsOf(ids(expected));
+        assertThat(sorted.get(0).getTitle()).isEqualTo(expected.get(0).getTitle());
+    }
+
+    @Test
+    @DisplayName("Должен сливать порции в несколько проходов и удалять временные файлы")
+    void shouldMergeInSeveralPassesAndCleanUp() throws IOException {
+        List<Book> books = randomBooks(ExternalBookSorter.MAX_MERGE_WIDTH * 5);
+        List<Book> expected = new ArrayList<>(books);
+        expected.sort(BookCatalog.byYearPublished());
+
+        List<Book> sorted = sortExternally(books, 2);
+
+        assertThat(ids(sorted)).containsExactlyElementsOf(ids(expected));
+        try (Stream<Path> files = Files.list(tempDir)) {
+            assertThat(files.map(path -> path.getFileName().toString()))
+                    .containsExactlyInAnyOrder("input.bin", "output.bin");
+        }
+    }
+
+    @Test
+    @DisplayName("Пустой файл должен давать пустой результат")
+    void shouldSortEmptyFile() throws IOException {
+        assertThat(sortExternally(List.of(), 10)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Должен отклонять файл неверного формата")
+    void shouldRejectInvalidFile() throws IOException {
+        Path file = tempDir.resolve("broken.bin");
+        Files.writeString(file, "не книги");
+
+        assertThatThrownBy(() -> new ExternalBookSorter(10).sort(file, tempDir.resolve("out.bin"), BookCatalog.byTitle()))
+                .isInstanceOf(IOException.class);
+        assertThatThrownBy(() -> new ExternalBookSorter(0)).isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,94 @@
+package ru.mentee.power.comparators;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class StringPoolTest {
+
+    @Test
+    @DisplayName("Должен возвращать один экземпляр для равных строк и считать экономию")
+    void shouldReturnCanonicalInstance() {
+        StringPool pool = new StringPool();
+        String first = new String("Толстой Л.Н.");
+        String copy = new String("Толстой Л.Н.");
+
+        assertThat(pool.intern(first)).isSameAs(first);
+        assertThat(pool.intern(copy)).isSameAs(first);
+        assertThat(pool.intern(null)).isNull();
+
+        StringPool.Stats stats = pool.getStats();
+        assertThat(stats.hitCount()).isEqualTo(1);
+        assertThat(stats.missCount()).isEqualTo(1);
+        assertThat(stats.size()).isEqualTo(1);
+        assertThat(stats.savedBytes()).isGreaterThan(copy.length() * 2L);
+    }
+
+    @Test
+    @DisplayName("Заполненный пул должен возвращать новые строки как есть")
+    void shouldNotGrowBeyondMaxSize() {
+        StringPool pool = new StringPool(2);
+        pool.intern("Роман");
+        pool.intern("Повесть");
+        String extra = new String("Драма");
+
+        assertThat(pool.intern(extra)).isSameAs(extra);
+        assertThat(pool.size()).isEqualTo(2);
+        assertThat(pool.getStats().rejectedCount()).isEqualTo(1);
+        assertThatThrownBy(() -> new StringPool(0)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    @DisplayName("Пул должен оставаться согласованным при одновременном использовании")
+    void shouldBeThreadSafe() throws Exception {
+        StringPool pool = new StringPool(100);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int thread = 0; thread < 4; thread++) {
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < 10_000; i++) {
+                        pool.intern(new String("Автор " + (i % 300)));
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        StringPool.Stats stats = pool.getStats();
+        assertThat(stats.size()).isEqualTo(100);
+        assertThat(stats.missCount()).isEqualTo(100);
+        assertThat(stats.hitCount() + stats.missCount() + stats.rejectedCount()).isEqualTo(40_000);
+    }
+
+    @Test
+    @DisplayName("Каталог должен хранить автора и жанр строками из пула, не меняя переданные книги")
+    void catalogueShouldInternAuthorAndGenre() {
+        BookCatalog catalog = new BookCatalog();
+        String secondAuthor = new String("Толстой Л.Н.");
+        Book first = new Book("Война и мир", new String("Толстой Л.Н."), 1869, 1225, new String("Роман"));
+        Book second = new Book("Анна Каренина", secondAuthor, 1877, 864, new String("Роман"));
+
+        catalog.addBook(first);
+        catalog.addBook(second);
+
+        List<Book> stored = catalog.getAllBooks();
+        assertThat(stored.get(1).getAuthor()).isSameAs(stored.get(0).getAuthor());
+        assertThat(stored.get(1).getGenre()).isSameAs(stored.get(0).getGenre());
+        assertThat(stored.get(1).getTitle()).isEqualTo("Анна Каренина");
+        assertThat(second.getAuthor()).isSameAs(secondAuthor);
+        assertThat(catalog.getStringPool().getStats().savedBytes()).isPositive();
+    }
+}
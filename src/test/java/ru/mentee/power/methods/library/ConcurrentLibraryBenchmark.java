@@ -0,0 +1,44 @@
+package ru.mentee.power.methods.library;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Замер пропускной способности {@link ConcurrentLibrary} при разном числе потоков.
+ * Не входит в обычный запуск тестов, запускается через {@code gradle benchmark}.
+ */
+@Tag("benchmark")
+public class ConcurrentLibraryBenchmark {
+
+    private static final int BOOKS = 2_000;
+    private static final int ROUNDS = 20;
+
+    @Test
+    void measureCheckoutThroughput() throws Exception {
+        long singleThreadNanos = 0;
+        for (int threads : new int[] {1, 2, 4, 8}) {
+            ConcurrentLibrary library = new ConcurrentLibrary();
+            for (int i = 0; i < BOOKS; i++) {
+                library.addBook(new Book("Том " + i, "Автор", 2000));
+            }
+
+            long nanos = ConcurrentLibraryTest.runConcurrently(threads, thread -> {
+                for (int round = 0; round < ROUNDS; round++) {
+                    for (int i = 0; i < BOOKS; i++) {
+                        library.checkoutBook("Том " + (i + thread * 97) % BOOKS);
+                    }
+                }
+            });
+            assertThat(library.listCheckedOutBooks()).hasSize(BOOKS);
+
+            if (threads == 1) {
+                singleThreadNanos = nanos;
+            }
+            long operations = (long) threads * ROUNDS * BOOKS;
+            System.out.printf("Потоков: %d, операций в секунду: %.0f, ускорение: %.2f%n",
+                    threads, operations * 1e9 / nanos, (double) singleThreadNanos * threads / nanos);
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package ru.mentee.power.methods.library;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ConcurrentLibraryTest {
+
+    private static final int BOOKS = 500;
+    private static final int ROUNDS = 3;
+
+    @Test
+    void testCheckoutAndReturnBook() {
+        ConcurrentLibrary library = new ConcurrentLibrary();
+        Book book = new Book("Война и мир", "Лев Толстой", 1869);
+        Book secondCopy = new Book("ВОЙНА И МИР", "Лев Толстой", 1869);
+        library.addBook(book);
+        library.addBook(secondCopy);
+
+        assertThat(library.findBookByTitle("война и мир")).isSameAs(book);
+        assertThat(library.checkoutBook("Война и мир")).isTrue();
+        assertThat(library.checkoutBook("Война и мир")).isTrue();
+        assertThat(library.checkoutBook("Война и мир")).isFalse();
+        assertThat(library.listCheckedOutBooks()).containsExactly(book, secondCopy);
+
+        assertThat(library.returnBook("Война и мир")).isTrue();
+        assertThat(library.listAvailableBooks()).containsExactly(book);
+        assertThat(library.checkoutBook("Неизвестная книга")).isFalse();
+    }
+
+    @Test
+    void testNoDoubleCheckoutUnderContention() throws Exception {
+        for (int threads : new int[] {2, 8}) {
+            ConcurrentLibrary library = new ConcurrentLibrary();
+            for (int i = 0; i < BOOKS; i++) {
+                library.addBook(new Book("Том " + i, "Автор", 2000));
+            }
+
+            // Все потоки выдают одни и те же книги; каждая книга за раунд выдается ровно один раз
+            AtomicIntegerArray checkouts = new AtomicIntegerArray(BOOKS);
+            runConcurrently(threads, thread -> {
+                for (int round = 0; round < ROUNDS; round++) {
+                    for (int i = 0; i < BOOKS; i++) {
+                        int index = (i + thread * 97) % BOOKS;
+                        if (library.checkoutBook("Том " + index)) {
+                            checkouts.incrementAndGet(index);
+                        }
+                    }
+                }
+            });
+
+            for (int i = 0; i < BOOKS; i++) {
+                assertThat(checkouts.get(i)).as("выдачи книги %d", i).isEqualTo(1);
+            }
+            assertThat(library.listCheckedOutBooks()).hasSize(BOOKS);
+            assertThat(library.listAvailableBooks()).isEmpty();
+        }
+    }
+
+    @Test
+    void testConcurrentAddBookIsVisible() throws Exception {
+        ConcurrentLibrary library = new ConcurrentLibrary();
+
+        runConcurrently(4, thread -> {
+            for (int i = 0; i < 1_000; i++) {
+                library.addBook(new Book("Книга " + thread + "-" + i, "Автор", 2000));
+            }
+        });
+
+        assertThat(library.listAvailableBooks()).hasSize(4_000);
+        assertThat(library.checkoutBook("книга 3-999")).isTrue();
+    }
+
+    interface Worker {
+        void run(int thread);
+    }
+
+    /**
+     * Запускает worker одновременно в threads потоках
+     * @return время работы в наносекундах
+     */
+    static long runConcurrently(int threads, Worker worker) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<?>> futures = new ArrayList<>();
+            for (int thread = 0; thread < threads; thread++) {
+                int number = thread;
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    worker.run(number);
+                    return null;
+                }));
+            }
+            long startTime = System.nanoTime();
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get();
+            }
+            return System.nanoTime() - startTime;
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
@@ -98,4 +98,66 @@ public class LibraryTest {
         // Третья книга не должна добавиться
         assertThat(smallLibrary.addBook(book3)).isFalse();
     }
-}
\ No newline at end of file
+
+    @Test
+    void testGrowableLibrary() {
+        // Библиотека без ограничения вместимости расширяется по мере добавления
+        Library growableLibrary = new Library();
+        for (int i = 0; i < 100; i++) {
+            assertThat(growableLibrary.addBook(new Book("Том " + i, "Автор", 2000))).isTrue();
+        }
+
+        assertThat(growableLibrary.listAvailableBooks()).hasSize(100);
+        assertThat(growableLibrary.findBookByTitle("том 99")).isNotNull();
+        assertThat(growableLibrary.checkoutBook("ТОМ 42")).isTrue();
+        assertThat(growableLibrary.listCheckedOutBooks()).hasSize(1);
+    }
+
+    @Test
+    void testFindBookByTitleIgnoresCase() {
+        assertThat(library.findBookByTitle("ВОЙНА И МИР")).isSameAs(book1);
+        assertThat(library.findBookByTitle("мастер и маргарита")).isSameAs(book3);
+        assertThat(library.findBookByTitle(null)).isNull();
+    }
+
+    @Test
+    void testBooksWithSameTitle() {
+        // Второй экземпляр книги с тем же названием
+        Book secondCopy = new Book("война и мир", "Лев Толстой", 1869);
+        library.addBook(secondCopy);
+
+        // Поиск находит первую добавленную книгу
+        assertThat(library.findBookByTitle("Война и мир")).isSameAs(book1);
+
+        // Выдаются оба экземпляра по очереди
+        assertThat(library.checkoutBook("Война и мир")).isTrue();
+        assertThat(library.checkoutBook("Война и мир")).isTrue();
+        assertThat(library.checkoutBook("Война и мир")).isFalse();
+        assertThat(book1.isAvailable()).isFalse();
+        assertThat(secondCopy.isAvailable()).isFalse();
+
+        // Возвращается сначала первый экземпляр
+        assertThat(library.returnBook("Война и мир")).isTrue();
+        assertThat(book1.isAvailable()).isTrue();
+        assertThat(secondCopy.isAvailable()).isFalse();
+    }
+
+    @Test
+    void testListingsFollowAvailabilityChanges() {
+        // Книга, выданная до добавления, сразу попадает в список выданных
+        Book checkedOut = new Book("1984", "Джордж Оруэлл", 1949);
+        checkedOut.setAvailable(false);
+        library.addBook(checkedOut);
+
+        assertThat(library.listAvailableBooks()).containsExactlyInAnyOrder(book1, book2, book3);
+        assertThat(library.listCheckedOutBooks()).containsExactly(checkedOut);
+
+        // Изменение доступности напрямую тоже учитывается в списках
+        book2.setAvailable(false);
+        library.checkoutBook("Война и мир");
+        library.returnBook("1984");
+
+        assertThat(library.listAvailableBooks()).containsExactlyInAnyOrder(book3, checkedOut);
+        assertThat(library.listCheckedOutBooks()).containsExactlyInAnyOrder(book1, book2);
+    }
+}
@@ -0,0 +1,71 @@
+package ru.mentee.power.methods.library;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class MappedLibraryStoreTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testCheckoutAndReturnBook() throws IOException {
+        try (MappedLibraryStore store = new MappedLibraryStore(tempDir.resolve("library.bin"))) {
+            store.addBook(new Book("Война и мир", "Лев Толстой", 1869));
+            store.addBook(new Book("Мастер и Маргарита", "Михаил Булгаков", 1967));
+
+            Book found = store.findBookByTitle("ВОЙНА И МИР");
+            assertThat(found.getAuthor()).isEqualTo("Лев Толстой");
+            assertThat(found.getYear()).isEqualTo(1869);
+            assertThat(store.findBookByTitle("Неизвестная книга")).isNull();
+
+            assertThat(store.checkoutBook("Война и мир")).isTrue();
+            assertThat(store.checkoutBook("Война и мир")).isFalse();
+            assertThat(store.findBookByTitle("Война и мир").isAvailable()).isFalse();
+            assertThat(store.returnBook("Война и мир")).isTrue();
+            assertThat(store.returnBook("Война и мир")).isFalse();
+        }
+    }
+
+    @Test
+    void testStateSurvivesReopen() throws IOException {
+        Path file = tempDir.resolve("library.bin");
+        try (MappedLibraryStore store = new MappedLibraryStore(file)) {
+            // Больше записей, чем помещается в начальное отображение и начальный индекс
+            for (int i = 0; i < 5_000; i++) {
+                store.addBook(new Book("Том " + i, i % 2 == 0 ? "Автор " + i : null, 1900 + i % 100));
+            }
+            store.checkoutBook("Том 42");
+            store.checkoutBook("Том 4999");
+        }
+
+        try (MappedLibraryStore store = new MappedLibraryStore(file)) {
+            assertThat(store.size()).isEqualTo(5_000);
+            assertThat(store.listCheckedOutBooks())
+                    .extracting(Book::getTitle)
+                    .containsExactly("Том 42", "Том 4999");
+            assertThat(store.listAvailableBooks()).hasSize(4_998);
+            assertThat(store.findBookByTitle("том 4243").getAuthor()).isNull();
+
+            store.addBook(new Book("Том 42", "Второй экземпляр", 2024));
+            assertThat(store.checkoutBook("Том 42")).isTrue();
+            assertThat(store.listCheckedOutBooks()).hasSize(3);
+        }
+    }
+
+    @Test
+    void testRejectsForeignFile() throws IOException {
+        Path file = tempDir.resolve("foreign.bin");
+        Files.writeString(file, "не хранилище библиотеки");
+
+        assertThatThrownBy(() -> new MappedLibraryStore(file)).isInstanceOf(IOException.class);
+        assertThat(Files.size(file)).isEqualTo("не хранилище библиотеки".getBytes().length);
+    }
+}
@@ -102,6 +102,50 @@ class TaskManagerTest {
         assertThat(sorted.get(3).getPriority()).isEqualTo(Task.Priority.LOW);
     }
 
+    /**
+     * Тест удаления задачи и отметки о выполнении по ID
+     */
+    @Test
+    void testRemoveAndCompleteById() {
+        assertThat(taskManager.removeTask(2)).isTrue();
+        assertThat(taskManager.removeTask(2)).isFalse();
+        assertThat(taskManager.getTaskById(2)).isNull();
+        assertThat(taskManager.markTaskAsCompleted(2)).isFalse();
+
+        assertThat(taskManager.markTaskAsCompleted(3)).isTrue();
+        assertThat(taskManager.markTaskAsCompleted(3)).isFalse();
+        assertThat(taskManager.getCompletedTasks()).extracting(Task::getId).containsExactly(3);
+        assertThat(taskManager.getAllTasks()).extracting(Task::getId).containsExactly(1, 3, 4);
+        assertThat(taskManager.removeTask(0)).isFalse();
+        assertThat(taskManager.removeTask(-1)).isFalse();
+    }
+
+    /**
+     * Тест порядка задач после множества удалений (с уплотнением хранилища)
+     */
+    @Test
+    void testOrderIsKeptAfterManyRemovals() {
+        for (int i = 0; i < 1_000; i++) {
+            taskManager.addTask("Задача " + i);
+        }
+        // Удаляем все задачи, кроме каждой десятой
+        for (int id = 1; id <= 1_004; id++) {
+            if (id % 10 != 0) {
+                assertThat(taskManager.removeTask(id)).isTrue();
+            }
+        }
+
+        List<Task> remaining = taskManager.getAllTasks();
+        assertThat(remaining).hasSize(100);
+        assertThat(remaining).extracting(Task::getId).isSorted();
+        assertThat(taskManager.getTaskById(500).getTitle()).isEqualTo("Задача 495");
+        assertThat(taskManager.markTaskAsCompleted(1_000)).isTrue();
+
+        Task added = taskManager.addTask("Новая задача");
+        assertThat(taskManager.getTaskById(added.getId())).isSameAs(added);
+        assertThat(taskManager.getAllTasks()).last().isSameAs(added);
+    }
+
     /**
      * Вспомогательный метод для создания даты
      */